@@ -77,7 +77,7 @@ const ChatComponent = ({
 
     getMessagesWithUser(receiverId)
       .then((res) => {
-        setMessages(res.data || []);
+        setMessages(res.data?.items || []);
       })
       .catch((err) => console.error("❌ Error loading chat:", err));
   }, [receiverId, token, user?.id]);
@@ -124,7 +124,7 @@ const ChatComponent = ({
                       (m.id && msg.id && String(m.id) === String(msg.id))
                     ) {
                       replaced = true;
-                      return { ...msg };
+                      return { ...msg, clientId: m.temp ? m.id : m.clientId };
                     }
                     return m;
                   });
@@ -140,6 +140,31 @@ const ChatComponent = ({
           },
           { Authorization: `Bearer ${token}` }
         );
+
+        // ❌ Messages the server could not store (queue full, or dropped by the writer)
+        client.subscribe(
+          "/user/queue/message-errors",
+          (frame) => {
+            try {
+              const err = JSON.parse(frame.body);
+              console.warn("❌ Message not stored:", err);
+              setMessages((prev) =>
+                prev.map((m) =>
+                  (err.clientMessageId &&
+                    (m.id === err.clientMessageId || m.clientId === err.clientMessageId)) ||
+                  (!err.clientMessageId &&
+                    m.sentAt === err.sentAt &&
+                    String(m.receiverId) === String(err.receiverId))
+                    ? { ...m, failed: true }
+                    : m
+                )
+              );
+            } catch (e) {
+              console.error("❌ Error parsing message error:", e);
+            }
+          },
+          { Authorization: `Bearer ${token}` }
+        );
       },
       onStompError: (frame) => console.error("❌ STOMP error:", frame),
       onDisconnect: () => {
@@ -189,7 +214,7 @@ const ChatComponent = ({
         client.publish({
           destination: "/app/chat.sendMessage",
           body: JSON.stringify({ receiverId, content: msgContent }),
-          headers: { Authorization: `Bearer ${token}` },
+          headers: { Authorization: `Bearer ${token}`, "client-message-id": optimistic.id },
         });
       } else {
         console.log("🌐 WebSocket not connected, sending via REST API...");
@@ -221,6 +246,7 @@ const ChatComponent = ({
           {msg.content}
           <div className="text-[10px] mt-1 opacity-70 text-right">
             {new Date(msg.sentAt).toLocaleTimeString([], { hour: "2-digit", minute: "2-digit" })}
+            {msg.failed && <span className="ml-1 font-semibold">· not delivered</span>}
           </div>
         </div>
       </div>
@@ -17,6 +17,7 @@ const ChatNotifications = () => {
 
   const stompClientRef = useRef(null);
   const subscriptionRef = useRef(null);
+  const countSubscriptionRef = useRef(null);
   const dropdownRef = useRef(null);
   const seenIds = useRef(new Set()); // ✅ Track all seen notifications by ID
 
@@ -109,6 +110,15 @@ const ChatNotifications = () => {
           );
 
           subscriptionRef.current = subscription;
+
+          // ✅ Server-pushed unread count (replaces polling /api/notifications/count)
+          countSubscriptionRef.current = stompClient.subscribe(
+            "/user/queue/notification-count",
+            (message) => {
+              const { count } = JSON.parse(message.body);
+              if (typeof count === "number") setUnreadCount(count);
+            }
+          );
         },
         (error) => {
           console.error("❌ WebSocket connection error:", error);
@@ -125,6 +135,9 @@ const ChatNotifications = () => {
     if (subscriptionRef.current) {
       subscriptionRef.current.unsubscribe();
     }
+    if (countSubscriptionRef.current) {
+      countSubscriptionRef.current.unsubscribe();
+    }
     if (stompClientRef.current) {
       stompClientRef.current.disconnect(() => {
         console.log("🔌 Disconnected from WebSocket");
@@ -306,6 +319,7 @@ const ChatNotifications = () => {
                       </p>
                       <p className="text-xs text-gray-400 mt-1">
                         {formatTime(n.sentAt)}
+                        {n.collapsedCount > 1 && ` · ${n.collapsedCount} messages`}
                       </p>
                     </div>
                   </div>
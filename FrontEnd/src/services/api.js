@@ -131,9 +131,9 @@ export const getReviewByBookingId = (bookingId) => {
 export const sendMessageAPI = (messageData) =>
   API.post("/messages", messageData);
 
-// 📥 Get all messages between logged-in user and another user
-export const getMessagesWithUser = (userId) =>
-  API.get(`/messages/between/${userId}`);
+// 📥 Get the latest messages with another user ({ items, before }); pass before for older ones
+export const getMessagesWithUser = (userId, params = {}) =>
+  API.get(`/messages/between/${userId}`, { params });
 
 export const verifyProvider = (providerId) => {
   return API.put(`/users/${providerId}/verify`);
@@ -0,0 +1,18 @@
+package infosys.backend.config;
+
+import infosys.backend.service.CatalogInvalidationChannel;
+import infosys.backend.service.LocalCatalogInvalidationChannel;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CacheConfig {
+
+    // In-process only by default; define another CatalogInvalidationChannel bean for multi-node setups
+    @Bean
+    @ConditionalOnMissingBean(CatalogInvalidationChannel.class)
+    public CatalogInvalidationChannel catalogInvalidationChannel() {
+        return new LocalCatalogInvalidationChannel();
+    }
+}
@@ -1,13 +1,18 @@
 package infosys.backend.config;
 
+import infosys.backend.enums.Role;
 import infosys.backend.model.User;
 import infosys.backend.repository.UserRepository;
+import infosys.backend.security.JwtClaims;
+import infosys.backend.security.JwtRevocationList;
+import infosys.backend.security.JwtTokenCache;
 import infosys.backend.security.JwtUtil;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
@@ -22,6 +27,12 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserRepository userRepository;
+    private final JwtTokenCache tokenCache;
+    private final JwtRevocationList revocationList;
+
+    // true → build the principal from token claims only (no DB lookup)
+    @Value("${jwt.auth.stateless:false}")
+    private boolean stateless;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -29,22 +40,20 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                                     FilterChain filterChain) throws ServletException, IOException {
 
         String authHeader = request.getHeader("Authorization");
-        String token = null;
-        String email = null;
-
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7);
-            try {
-                email = jwtUtil.extractUsername(token);
-            } catch (Exception e) {
-                logger.warn("Invalid JWT token: " + e.getMessage());
+
+        if (authHeader != null && authHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String token = authHeader.substring(7);
+
+            // ⚡ Already verified token → no parsing, no DB lookup
+            JwtTokenCache.Entry entry = tokenCache.get(token);
+            if (entry == null) {
+                entry = stateless ? verifyStateless(token) : verify(token);
             }
-        }
 
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            User user = userRepository.findByEmail(email).orElse(null);
+            if (entry != null) {
+                User user = entry.principal();
 
-            if (user != null && jwtUtil.validateToken(token, user.getEmail())) {
                 // ✅ Normalize role to uppercase and add ROLE_ prefix
                 String roleName = "ROLE_" + user.getRole().name().toUpperCase();
                 UsernamePasswordAuthenticationToken authToken =
@@ -55,13 +64,71 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                         );
 
                 SecurityContextHolder.getContext().setAuthentication(authToken);
-
-                // 🔹 Log for debugging
-                logger.info("Authenticated user: " + email + ", role: " + roleName);
-                logger.info("Authorities: " + SecurityContextHolder.getContext().getAuthentication().getAuthorities());
             }
         }
 
         filterChain.doFilter(request, response);
     }
+
+    // Full verification path: parse once, load the user, then cache the result
+    private JwtTokenCache.Entry verify(String token) {
+        JwtClaims claims = parse(token);
+        if (claims == null) return null;
+        return loadUser(token, claims);
+    }
+
+    // Stateless path: subject, role and user id come from the signed token
+    private JwtTokenCache.Entry verifyStateless(String token) {
+        JwtClaims claims = parse(token);
+        if (claims == null) return null;
+
+        // Tokens issued before uid was added to the payload still need the DB
+        if (claims.userId() == null || claims.role() == null) {
+            return loadUser(token, claims);
+        }
+
+        if (revocationList.isRevoked(claims.userId(), claims.issuedAt())) {
+            logger.warn("Revoked JWT token for user id " + claims.userId());
+            return null;
+        }
+
+        Role role;
+        try {
+            role = Role.valueOf(claims.role().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            logger.warn("Unknown role in JWT token: " + claims.role());
+            return null;
+        }
+
+        User principal = User.builder()
+                .id(claims.userId())
+                .email(claims.subject())
+                .name(claims.name())
+                .role(role)
+                .build();
+
+        return tokenCache.put(token, claims, principal);
+    }
+
+    private JwtClaims parse(String token) {
+        try {
+            return jwtUtil.parseAndValidate(token);
+        } catch (Exception e) {
+            logger.warn("Invalid JWT token: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private JwtTokenCache.Entry loadUser(String token, JwtClaims claims) {
+        String email = claims.subject();
+        if (email == null) return null;
+
+        User user = userRepository.findByEmail(email).orElse(null);
+        if (user == null || !user.getEmail().equals(email)) return null;
+
+        // 🔹 Log for debugging (only on cache miss)
+        logger.info("Authenticated user: " + email + ", role: " + user.getRole());
+
+        return tokenCache.put(token, claims, user);
+    }
 }
@@ -33,7 +33,7 @@ public class JwtChannelInterceptor implements ChannelInterceptor {
 
                 try {
                     // ✅ Extract the email (username) from JWT
-                    String email = jwtUtil.extractUsername(token);
+                    String email = jwtUtil.parseAndValidate(token).subject();
 
                     // ✅ Normalize for consistency
                     email = email.trim().toLowerCase();
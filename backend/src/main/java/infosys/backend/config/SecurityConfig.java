@@ -1,5 +1,6 @@
 package infosys.backend.config;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -35,6 +36,8 @@ public class SecurityConfig {
                 .requestMatchers("/uploads/**").permitAll()  // allow static file access
                 .requestMatchers("/ws/**").permitAll()       // allow WebSocket handshake
                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll() // preflight requests
+                // async re-dispatches (SSE streams) were already authorized on the original request
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
 
                 // 🔐 Protected endpoints
                 .requestMatchers("/api/services/**").authenticated()
@@ -47,7 +47,7 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                     String token = accessor.getFirstNativeHeader("Authorization");
                     if (token != null && token.startsWith("Bearer ")) {
                         token = token.substring(7);
-                        String email = jwtUtil.extractUsername(token); // ✅ Extract email from JWT
+                        String email = jwtUtil.parseAndValidate(token).subject(); // ✅ Extract email from JWT
                         if (email != null) {
                             accessor.setUser(new UsernamePasswordAuthenticationToken(email, null, null));
                             System.out.println("✅ STOMP authenticated as " + email);
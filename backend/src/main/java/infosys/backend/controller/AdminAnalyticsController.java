@@ -1,14 +1,23 @@
 package infosys.backend.controller;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import infosys.backend.dto.AnalyticsView;
+import infosys.backend.dto.TimeSeriesPoint;
 import infosys.backend.service.AnalyticsService;
+import infosys.backend.service.AnalyticsStream;
 import lombok.RequiredArgsConstructor;
 
 @RestController
@@ -16,7 +25,17 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class AdminAnalyticsController {
 
+    private static final int MAX_LIMIT = 100;
+
     private final AnalyticsService analyticsService;
+    private final AnalyticsStream analyticsStream;
+
+    // ✅ Live dashboard: "summary" event on connect, then coalesced "delta" events (at most 1/s)
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        return analyticsStream.subscribe();
+    }
 
     @GetMapping("/summary")
     public ResponseEntity<Map<String, Object>> getSummary() {
@@ -24,22 +43,42 @@ public class AdminAnalyticsController {
     }
 
     @GetMapping("/bookings/monthly")
-    public ResponseEntity<List<Map<String, Object>>> getBookingsPerMonth() {
+    public ResponseEntity<List<TimeSeriesPoint>> getBookingsPerMonth() {
         return ResponseEntity.ok(analyticsService.getBookingsPerMonth());
     }
 
+    // ✅ Zero-filled booking counts, e.g. ?from=2025-01-01&to=2025-12-31&granularity=week
+    @GetMapping("/bookings/series")
+    public ResponseEntity<?> getBookingSeries(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "day") String granularity) {
+        try {
+            return ResponseEntity.ok(analyticsService.getBookingSeries(from, to, granularity));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @GetMapping("/top-providers")
-    public ResponseEntity<List<Map<String, Object>>> getTopProviders() {
-        return ResponseEntity.ok(analyticsService.getTopProviders());
+    public ResponseEntity<List<AnalyticsView.ProviderBookings>> getTopProviders(
+            @RequestParam(defaultValue = "5") int limit) {
+        return ResponseEntity.ok(analyticsService.getTopProviders(clamp(limit)));
     }
 
     @GetMapping("/top-services")
-    public ResponseEntity<List<Map<String, Object>>> getTopServices() {
-        return ResponseEntity.ok(analyticsService.getTopServices());
+    public ResponseEntity<List<AnalyticsView.CategoryBookings>> getTopServices(
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(analyticsService.getTopServices(clamp(limit)));
     }
 
     @GetMapping("/locations")
-    public ResponseEntity<List<Map<String, Object>>> getLocationTrends() {
-        return ResponseEntity.ok(analyticsService.getLocationTrends());
+    public ResponseEntity<List<AnalyticsView.LocationBookings>> getLocationTrends(
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(analyticsService.getLocationTrends(clamp(limit)));
+    }
+
+    private static int clamp(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
     }
 }
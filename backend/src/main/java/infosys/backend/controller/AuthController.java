@@ -39,6 +39,8 @@ public class AuthController {
                     .price(request.getPrice() != null ? BigDecimal.valueOf(request.getPrice()) : BigDecimal.ZERO)
                     .availability(request.getAvailability() != null ? request.getAvailability() : "Available")
                     .location(registeredUser.getLocation())
+                    .latitude(request.getLatitude())
+                    .longitude(request.getLongitude())
                     .build();
 
             serviceProviderService.createService(serviceRequest, registeredUser.getEmail());
@@ -27,11 +27,19 @@ public class ChatNotificationController {
         return ResponseEntity.ok(notifications);
     }
 
+    // ✅ Paged, newest first; pass "before" from the response for older ones
     @GetMapping("/all")
-    public ResponseEntity<List<ChatNotificationDTO>> getAllNotifications(Principal principal) {
+    public ResponseEntity<?> getAllNotifications(
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) Integer limit,
+            Principal principal
+    ) {
         User currentUser = getCurrentUser(principal);
-        List<ChatNotificationDTO> notifications = notificationService.getAllNotifications(currentUser);
-        return ResponseEntity.ok(notifications);
+        try {
+            return ResponseEntity.ok(notificationService.getNotificationPage(currentUser, before, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @GetMapping("/count")
@@ -52,20 +60,20 @@ public class ChatNotificationController {
     }
 
     @PutMapping("/read-all")
-    public ResponseEntity<Void> markAllAsRead(Principal principal) {
+    public ResponseEntity<Map<String, Integer>> markAllAsRead(Principal principal) {
         User currentUser = getCurrentUser(principal);
-        notificationService.markAllAsRead(currentUser);
-        return ResponseEntity.ok().build();
+        int updated = notificationService.markAllAsRead(currentUser);
+        return ResponseEntity.ok(Map.of("updated", updated));
     }
 
     @PutMapping("/read-from/{senderId}")
-    public ResponseEntity<Void> markAllFromSenderAsRead(
+    public ResponseEntity<Map<String, Integer>> markAllFromSenderAsRead(
             @PathVariable Long senderId,
             Principal principal
     ) {
         User currentUser = getCurrentUser(principal);
-        notificationService.markAllFromSenderAsRead(currentUser, senderId);
-        return ResponseEntity.ok().build();
+        int updated = notificationService.markAllFromSenderAsRead(currentUser, senderId);
+        return ResponseEntity.ok(Map.of("updated", updated));
     }
 
     private User getCurrentUser(Principal principal) {
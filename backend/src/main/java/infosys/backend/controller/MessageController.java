@@ -1,36 +1,50 @@
 package infosys.backend.controller;
 
+import infosys.backend.dto.ConversationSummaryDTO;
 import infosys.backend.dto.MessageDTO;
 import infosys.backend.model.Message;
 import infosys.backend.model.User;
 import infosys.backend.service.MessageService;
-import infosys.backend.service.ChatNotificationService;
+import infosys.backend.service.ChatMessagePipeline;
+import infosys.backend.service.ChatUserDirectory;
+import infosys.backend.service.ChatUserDirectory.ChatUser;
+import infosys.backend.service.ConversationService;
+import infosys.backend.service.NotificationDedupWindow;
 import infosys.backend.repository.UserRepository;
+import infosys.backend.security.JwtClaims;
+import infosys.backend.security.JwtTokenCache;
 import infosys.backend.security.JwtUtil;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.web.bind.annotation.*;
 
 import java.security.Principal;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/messages")
 @RequiredArgsConstructor
 public class MessageController {
 
+    private static final Logger log = LoggerFactory.getLogger(MessageController.class);
+
     private final MessageService messageService;
     private final UserRepository userRepository;
-    private final SimpMessagingTemplate messagingTemplate;
     private final JwtUtil jwtUtil;
-    private final ChatNotificationService notificationService;
+    private final ConversationService conversationService;
+    private final ChatMessagePipeline messagePipeline;
+    private final ChatUserDirectory chatUserDirectory;
+    private final NotificationDedupWindow dedupWindow;
+    private final JwtTokenCache tokenCache;
 
     // ---------------- REST API ---------------- //
 
@@ -57,9 +71,10 @@ message.setSender(sender);
     return ResponseEntity.ok(convertToDTO(saved));
 }
 
-    @GetMapping("/between/{userId}")
-public ResponseEntity<List<MessageDTO>> getMessagesWithUser(
-        @PathVariable Long userId,
+    // ✅ Inbox: one row per chat partner, most recent conversation first
+    @GetMapping("/conversations")
+public ResponseEntity<List<ConversationSummaryDTO>> getConversations(
+        @RequestParam(required = false) Integer limit,
         Principal principal
 ) {
     User currentUser;
@@ -69,15 +84,29 @@ public ResponseEntity<List<MessageDTO>> getMessagesWithUser(
         throw new RuntimeException("Unauthenticated user");
     }
 
-    User otherUser = userRepository.findById(userId)
-            .orElseThrow(() -> new RuntimeException("Other user not found"));
+    return ResponseEntity.ok(conversationService.getInbox(currentUser.getId(), limit));
+}
 
-    List<Message> messages = messageService.getMessagesBetweenUsers(currentUser, otherUser);
-    List<MessageDTO> dtos = messages.stream()
-            .map(this::convertToDTO)
-            .collect(Collectors.toList());
+    // ✅ Latest messages with a user (oldest first); pass "before" from the response for older ones
+    @GetMapping("/between/{userId}")
+public ResponseEntity<?> getMessagesWithUser(
+        @PathVariable Long userId,
+        @RequestParam(required = false) String before,
+        @RequestParam(required = false) Integer limit,
+        Principal principal
+) {
+    User currentUser;
+    if (principal instanceof UsernamePasswordAuthenticationToken) {
+        currentUser = (User) ((UsernamePasswordAuthenticationToken) principal).getPrincipal();
+    } else {
+        throw new RuntimeException("Unauthenticated user");
+    }
 
-    return ResponseEntity.ok(dtos);
+    try {
+        return ResponseEntity.ok(messageService.getConversationPage(currentUser.getId(), userId, before, limit));
+    } catch (IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
 }
 
 
@@ -96,49 +125,60 @@ public void sendMessageWebSocket(
 
     token = token.substring(7);
 
-    // ✅ Get user email from token, then fetch actual User from DB
-    String email;
-    try {
-        email = jwtUtil.extractUsername(token); // change to your method that extracts username/email
-    } catch (Exception e) {
-        System.out.println("❌ Invalid token, cannot authenticate user: " + e.getMessage());
-        return;
+    // ✅ Sender from the verified-token cache; only a cache miss parses the token and hits the DB
+    JwtTokenCache.Entry cached = tokenCache.get(token);
+    User sender;
+    if (cached != null) {
+        sender = cached.principal();
+    } else {
+        JwtClaims claims;
+        try {
+            claims = jwtUtil.parseAndValidate(token); // single signature verification
+        } catch (Exception e) {
+            System.out.println("❌ Invalid token, cannot authenticate user: " + e.getMessage());
+            return;
+        }
+        User user = userRepository.findByEmail(claims.subject())
+                .orElseThrow(() -> new RuntimeException("Sender not found with email: " + claims.subject()));
+        sender = tokenCache.put(token, claims, user).principal();
     }
 
-    User sender = userRepository.findByEmail(email)
-            .orElseThrow(() -> new RuntimeException("Sender not found with email: " + email));
-
     if (messageDTO.getReceiverId() == null) {
         System.out.println("❌ Receiver ID is null, cannot send message");
         return;
     }
 
-    User receiver = userRepository.findById(messageDTO.getReceiverId())
-            .orElseThrow(() -> new RuntimeException("Receiver not found with ID: " + messageDTO.getReceiverId()));
-
-    Message message = Message.builder()
-            .sender(sender)
-            .receiver(receiver)
-            .content(messageDTO.getContent())
-            .sentAt(LocalDateTime.now())
-            .build();
-
-    Message saved = messageService.saveMessage(message);
-    MessageDTO dto = convertToDTO(saved);
-
-    // ✅ Broadcast to both users (real-time)
-   System.out.println("📤 Sending WebSocket message to user: " + receiver.getEmail());
-messagingTemplate.convertAndSendToUser(receiver.getEmail().toLowerCase(), "/queue/messages", dto);
+    ChatUser receiver = chatUserDirectory.find(messageDTO.getReceiverId());
+    if (receiver == null) {
+        throw new RuntimeException("Receiver not found with ID: " + messageDTO.getReceiverId());
+    }
 
-    messagingTemplate.convertAndSendToUser(sender.getEmail().toLowerCase(), "/queue/messages", dto);
+    // ⚡ Storage (message, notification, inbox row) and delivery happen in the background writer
+    ChatUser from = new ChatUser(sender.getId(), sender.getName(), sender.getEmail());
+    LocalDateTime sentAt = LocalDateTime.now();
 
-    // 🔔 Create notification for receiver
-    notificationService.createNotification(sender, receiver, messageDTO.getContent(), saved.getSentAt());
+    // 🔔 At most one notification per message; clients may send their own id as the dedup key
+    String clientMessageId = headerAccessor.getFirstNativeHeader("client-message-id");
+    boolean notify = dedupWindow.firstSeen(from.id(), receiver.id(), messageDTO.getContent(), clientMessageId);
+    if (!notify) {
+        log.debug("Duplicate message from user {} to {}, no notification", from.id(), receiver.id());
+    }
 
-    System.out.println("✅ Message saved and sent via WebSocket: " + dto);
-    System.out.println("📨 WebSocket header user: " + headerAccessor.getUser());
-System.out.println("📨 Sending to user: " + receiver.getEmail());
+    if (!messagePipeline.submit(from, receiver, messageDTO.getContent(), sentAt, clientMessageId, notify)) {
+        log.warn("Chat pipeline rejected a message from user {}", from.id());
+        if (notify) dedupWindow.forget(from.id(), receiver.id(), messageDTO.getContent(), clientMessageId);
+        messagePipeline.reportFailure(from, receiver.id(), sentAt, clientMessageId, "server busy");
+    }
+    // ✅ Both users get the message (with its id) once it is stored
+}
 
+    // ✅ Chat pipeline queue depth and counters, plus notifications suppressed as duplicates (Admin)
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/pipeline/stats")
+public ResponseEntity<Map<String, Object>> getPipelineStats() {
+    Map<String, Object> stats = messagePipeline.stats();
+    stats.put("duplicateNotifications", dedupWindow.duplicates());
+    return ResponseEntity.ok(stats);
 }
 
 
@@ -1,5 +1,6 @@
 package infosys.backend.controller;
 
+import infosys.backend.dto.RatingStatsResponse;
 import infosys.backend.dto.ReviewReplyRequest;
 import infosys.backend.dto.ReviewResponseDTO;
 import infosys.backend.model.Review;
@@ -38,9 +39,17 @@ public class ReviewController {
     }
 
     // ✅ Get all reviews for a provider
+    // With sort/cursor/limit: keyset page of flat rows (ReviewPageResponse) instead of entities
     @PreAuthorize("hasAnyRole('CUSTOMER','PROVIDER','ADMIN')")
     @GetMapping("/provider/{providerId}")
-    public ResponseEntity<List<Review>> getProviderReviews(@PathVariable Long providerId) {
+    public ResponseEntity<?> getProviderReviews(
+            @PathVariable Long providerId,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        if (sort != null || cursor != null || limit != null) {
+            return reviewPage(providerId, null, sort, cursor, limit);
+        }
         try {
             User provider = userService.getUserById(providerId);
             List<Review> reviews = reviewService.getReviewsByProvider(provider);
@@ -63,10 +72,25 @@ public class ReviewController {
         }
     }
 
+    // ✅ Star histogram, percentiles and Bayesian score for a provider
+    @PreAuthorize("hasAnyRole('CUSTOMER','PROVIDER','ADMIN')")
+    @GetMapping("/provider/{providerId}/stats")
+    public ResponseEntity<RatingStatsResponse> getProviderRatingStats(@PathVariable Long providerId) {
+        return ResponseEntity.ok(reviewService.getProviderStats(providerId));
+    }
+
     // ✅ Get all reviews for a specific service
+    // With sort/cursor/limit: keyset page of flat rows (ReviewPageResponse) instead of entities
     @PreAuthorize("hasAnyRole('CUSTOMER','PROVIDER','ADMIN')")
     @GetMapping("/service/{serviceId}")
-    public ResponseEntity<List<Review>> getReviewsByService(@PathVariable Long serviceId) {
+    public ResponseEntity<?> getReviewsByService(
+            @PathVariable Long serviceId,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        if (sort != null || cursor != null || limit != null) {
+            return reviewPage(null, serviceId, sort, cursor, limit);
+        }
         try {
             ServiceProvider service = serviceProviderService.getServiceById(serviceId);
             List<Review> reviews = reviewService.getReviewsByService(service);
@@ -89,6 +113,13 @@ public class ReviewController {
         }
     }
 
+    // ✅ Star histogram, percentiles and Bayesian score for a service
+    @PreAuthorize("hasAnyRole('CUSTOMER','PROVIDER','ADMIN')")
+    @GetMapping("/service/{serviceId}/stats")
+    public ResponseEntity<RatingStatsResponse> getServiceRatingStats(@PathVariable Long serviceId) {
+        return ResponseEntity.ok(reviewService.getServiceStats(serviceId));
+    }
+
     // ✅ Add or update reply for a review
 @PreAuthorize("hasRole('PROVIDER')")
 @PutMapping("/reply/{reviewId}")
@@ -115,6 +146,14 @@ public ResponseEntity<ReviewResponseDTO> addReply(
     }
 
 
+    private ResponseEntity<?> reviewPage(Long providerId, Long serviceId, String sort, String cursor, Integer limit) {
+        try {
+            return ResponseEntity.ok(reviewService.getReviewPage(providerId, serviceId, sort, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @GetMapping("/booking/{bookingId}")
     public ResponseEntity<?> getReviewByBookingId(@PathVariable Long bookingId) {
         return reviewService.getReviewByBookingId(bookingId)
@@ -1,20 +1,28 @@
 package infosys.backend.controller;
 
+import infosys.backend.dto.NearbyServiceResponse;
 import infosys.backend.dto.ServiceRequest;
 import infosys.backend.dto.ServiceResponse;
+import infosys.backend.dto.TopServiceResponse;
 import infosys.backend.model.ServiceProvider;
 import infosys.backend.model.User;
+import infosys.backend.service.ServiceListingSnapshot;
 import infosys.backend.service.ServiceProviderService;
+import infosys.backend.service.ServiceRanking;
 import infosys.backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/services")
@@ -23,6 +31,8 @@ public class ServiceController {
 
     private final ServiceProviderService serviceProviderService;
     private final UserRepository userRepository; // Inject UserRepository to update profileCompleted
+    private final ServiceListingSnapshot listingSnapshot;
+    private final ServiceRanking serviceRanking;
 
     // ✅ Create service (PROVIDER only)
 
@@ -43,62 +53,110 @@ public class ServiceController {
         // ✅ Mark profile as completed if not already
 
         // Build response DTO
-        ServiceResponse response = ServiceResponse.builder()
-                .id(service.getId())
-                .providerId(service.getProvider().getId())
-                .providerName(service.getProvider().getName())
-                .category(service.getCategory())
-                .subcategory(service.getSubcategory())
-                .description(service.getDescription())
-                .price(service.getPrice())
-                .availability(service.getAvailability())
-                .location(service.getLocation())
-                .build();
+        ServiceResponse response = ServiceResponse.fromEntity(service);
 
         return ResponseEntity.ok(response);
     }
 
     // ✅ Get all services
+    // With any filter, cursor or limit → keyset page; without → full listing snapshot (legacy clients)
     @GetMapping
-    public ResponseEntity<List<ServiceResponse>> getAllServices() {
-        List<ServiceResponse> services = serviceProviderService.getAllServices()
-                .stream()
-                .map(service -> ServiceResponse.builder()
-                        .id(service.getId())
-                        .providerId(service.getProvider().getId())
-                        .providerName(service.getProvider().getName())
-                        .category(service.getCategory())
-                        .subcategory(service.getSubcategory())
-                        .description(service.getDescription())
-                        .price(service.getPrice())
-                        .availability(service.getAvailability())
-                        .location(service.getLocation())
-                        .build())
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(services);
+    public ResponseEntity<?> getAllServices(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String subcategory,
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        boolean paged = category != null || subcategory != null || location != null
+                || minPrice != null || maxPrice != null || cursor != null || limit != null;
+
+        if (paged) {
+            return ResponseEntity.ok(serviceProviderService.getServicesPage(
+                    category, subcategory, location, minPrice, maxPrice, cursor, limit));
+        }
+
+        // ⚡ Public listing: pre-serialized bytes, 304 when the client copy is current
+        // Each encoding has its own ETag, so a cache never pairs one representation with the other's tag
+        ServiceListingSnapshot.Snapshot snapshot = listingSnapshot.current();
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        String etag = gzip ? snapshot.gzipEtag() : snapshot.etag();
+        if (etagMatches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING).build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.gzip());
+        }
+        return response.body(snapshot.json());
+    }
+
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) return true;
+        }
+        return false;
+    }
+
+    // ✅ Full-text search over category, subcategory, description and location
+    @GetMapping("/search")
+    public ResponseEntity<List<ServiceResponse>> searchServices(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(serviceProviderService.searchServices(q, Math.min(Math.max(limit, 1), 100)));
+    }
+
+    // ✅ Top services by rating, bookings and recency (served from memory)
+    @GetMapping("/top")
+    public ResponseEntity<List<TopServiceResponse>> getTopServices(
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "10") int k) {
+        return ResponseEntity.ok(serviceRanking.top(category, Math.min(Math.max(k, 1), ServiceRanking.MAX_K)));
+    }
+
+    // ✅ Providers near me: k nearest services within radiusKm (max 200 km)
+    @GetMapping("/nearby")
+    public ResponseEntity<List<NearbyServiceResponse>> getNearbyServices(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(defaultValue = "10") double radiusKm,
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "20") int k) {
+        if (lat < -90 || lat > 90 || lon < -180 || lon > 180) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(serviceProviderService.getNearbyServices(
+                lat, lon, Math.min(radiusKm, 200), category, Math.min(Math.max(k, 1), 50)));
+    }
+
+    // ✅ Catalog cache hit/miss counters (Admin)
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(serviceProviderService.getCatalogCacheStats());
     }
 
     // ✅ Get service by ID
+    @GetMapping("/{id}")
+    public ResponseEntity<ServiceResponse> getServiceById(@PathVariable Long id) {
+        return ResponseEntity.ok(serviceProviderService.getServiceResponseById(id));
+    }
+
+    // ✅ Get services by provider
     @GetMapping("/provider/{providerId}")
     public ResponseEntity<List<ServiceResponse>> getServicesByProvider(@PathVariable Long providerId) {
-        List<ServiceProvider> services = serviceProviderService.getServicesByProvider(providerId);
-
-        List<ServiceResponse> response = services.stream()
-            .map(service -> ServiceResponse.builder()
-                    .id(service.getId())
-                    .providerId(service.getProvider().getId())
-                    .providerName(service.getProvider().getName())
-                    .category(service.getCategory())
-                    .subcategory(service.getSubcategory())
-                    .description(service.getDescription())
-                    .price(service.getPrice())
-                    .availability(service.getAvailability())
-                    .location(service.getLocation())
-                    .build())
-            .toList();
-
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(serviceProviderService.getServicesByProvider(providerId));
     }
 
     // ✅ Update service by ID (Provider/Admin only)
@@ -109,17 +167,7 @@ public class ServiceController {
 
         ServiceProvider updated = serviceProviderService.updateService(id, request);
 
-        ServiceResponse response = ServiceResponse.builder()
-                .id(updated.getId())
-                .providerId(updated.getProvider().getId())
-                .providerName(updated.getProvider().getName())
-                .category(updated.getCategory())
-                .subcategory(updated.getSubcategory())
-                .description(updated.getDescription())
-                .price(updated.getPrice())
-                .availability(updated.getAvailability())
-                .location(updated.getLocation())
-                .build();
+        ServiceResponse response = ServiceResponse.fromEntity(updated);
 
         return ResponseEntity.ok(response);
     }
@@ -1,8 +1,10 @@
 package infosys.backend.controller;
 
+import infosys.backend.dto.UserSummaryDTO;
 import infosys.backend.enums.Role;
 import infosys.backend.model.User;
 import infosys.backend.repository.UserRepository;
+import infosys.backend.security.JwtTokenCache;
 import infosys.backend.service.PresenceService;
 import infosys.backend.service.UserService;
 import lombok.RequiredArgsConstructor;
@@ -22,29 +24,28 @@ public class UserController {
     private final UserService userService;
     private final UserRepository userRepository;
     private final PresenceService presenceService;
+    private final JwtTokenCache tokenCache;
 
 
     @PreAuthorize("hasRole('ADMIN') or hasRole('CUSTOMER') or hasRole('PROVIDER')")
     @GetMapping("/all")
-    public ResponseEntity<List<User>> getAllUsers() {
+    public ResponseEntity<List<UserSummaryDTO>> getAllUsers() {
         return ResponseEntity.ok(userService.getAllUsers());
     }
 
     @PreAuthorize("hasRole('CUSTOMER')")
 @GetMapping("/providers")
-public ResponseEntity<List<User>> getAllProviders() {
-    List<User> providers = userService.getAllUsers().stream()
-            .filter(u -> u.getRole() == Role.PROVIDER && u.isVerified())
-            .toList();
-    return ResponseEntity.ok(providers);
+public ResponseEntity<List<UserSummaryDTO>> getAllProviders() {
+    return ResponseEntity.ok(userService.getVerifiedProviders());
 }
 
 
     @PreAuthorize("hasRole('PROVIDER') or hasRole('CUSTOMER') or hasRole('ADMIN')")
     @GetMapping("/me")
     public ResponseEntity<User> getMyProfile(Authentication auth) {
-        User user = (User) auth.getPrincipal();
-        return ResponseEntity.ok(user);
+        // In stateless mode the principal only carries the token claims; the profile needs the full row
+        User principal = (User) auth.getPrincipal();
+        return ResponseEntity.ok(userService.getUserById(principal.getId()));
     }
 
     @GetMapping("/id/{id}")
@@ -130,12 +131,13 @@ public ResponseEntity<String> verifyProvider(@PathVariable Long id) {
 
     user.setVerified(true);
     userRepository.save(user);
+    tokenCache.invalidateUser(id);
 
     return ResponseEntity.ok("Provider verified successfully");
 }
 @GetMapping("/customers")
-public ResponseEntity<List<User>> getAllCustomers() {
-    List<User> customers = userService.getUsersByRole("CUSTOMER");
+public ResponseEntity<List<UserSummaryDTO>> getAllCustomers() {
+    List<UserSummaryDTO> customers = userService.getUsersByRole("CUSTOMER");
     return ResponseEntity.ok(customers);
 }
 
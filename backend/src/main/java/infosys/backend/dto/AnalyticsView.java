@@ -1,11 +1,31 @@
 package infosys.backend.dto;
-import lombok.*;
-
-@Data
-@AllArgsConstructor
-@NoArgsConstructor
-public class AnalyticsView {
-    private String label;   // e.g. category, location, provider name
-    private Long count;     // number of bookings, reviews, etc.
-}
 
+/**
+ * Typed projections for the admin analytics queries. Spring Data fills them from the
+ * JPQL aliases, and Jackson serializes the getters, so the JSON keys match the aliases.
+ */
+public interface AnalyticsView {
+
+    interface Summary {
+        Long getTotalUsers();
+        Long getTotalProviders();
+        Long getTotalBookings();
+        Long getCompletedBookings();
+    }
+
+    interface ProviderBookings {
+        Long getProviderId();
+        String getProvider();
+        Long getTotalBookings();
+    }
+
+    interface CategoryBookings {
+        String getCategory();
+        Long getTotalBookings();
+    }
+
+    interface LocationBookings {
+        String getLocation();
+        Long getBookingCount();
+    }
+}
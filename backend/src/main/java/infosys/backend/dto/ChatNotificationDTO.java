@@ -21,4 +21,5 @@ public class ChatNotificationDTO {
     private LocalDateTime sentAt;
     private Boolean isRead;
     private LocalDateTime createdAt;
+    private Integer collapsedCount;
 }
\ No newline at end of file
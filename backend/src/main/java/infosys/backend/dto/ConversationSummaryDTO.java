@@ -0,0 +1,20 @@
+package infosys.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Inbox row: chat partner, last message preview and how many messages from them are unread
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConversationSummaryDTO {
+    private Long userId;
+    private String userName;
+    private String lastMessagePreview;
+    private Long lastSenderId;
+    private LocalDateTime lastMessageAt;
+    private int unreadCount;
+}
@@ -0,0 +1,16 @@
+package infosys.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Latest messages of a chat, oldest first; pass "before" back to load older ones (null: no more)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessagePageResponse {
+    private List<MessageDTO> items;
+    private String before;
+}
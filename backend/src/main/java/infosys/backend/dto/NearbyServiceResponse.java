@@ -0,0 +1,13 @@
+package infosys.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyServiceResponse {
+    private ServiceResponse service;
+    private double distanceKm;
+}
@@ -0,0 +1,16 @@
+package infosys.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Notifications newest first; pass "before" back to load older ones (null: no more)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationPageResponse {
+    private List<ChatNotificationDTO> items;
+    private String before;
+}
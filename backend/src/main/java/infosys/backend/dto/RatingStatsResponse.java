@@ -0,0 +1,19 @@
+package infosys.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Star distribution of one provider or service; histogram[0] counts 1-star reviews ... histogram[4] 5-star
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingStatsResponse {
+    private long count;
+    private double average;
+    private long[] histogram;
+    private int p25;
+    private int median;
+    private int p75;
+    private double bayesianScore; // average shrunk towards the global mean; use for ranking
+}
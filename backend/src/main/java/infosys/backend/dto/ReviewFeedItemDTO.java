@@ -0,0 +1,26 @@
+package infosys.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Flat review row for paginated feeds; built directly by a JPQL constructor query
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewFeedItemDTO {
+    private Long id;
+    private Long bookingId;
+    private Long customerId;
+    private String customerName;
+    private Long providerId;
+    private Long serviceId;
+    private String serviceCategory;
+    private String serviceSubcategory;
+    private Integer rating;
+    private String comment;
+    private String reply;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,16 @@
+package infosys.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// One keyset page of the service catalog; nextCursor is null on the last page
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ServicePageResponse {
+    private List<ServiceResponse> items;
+    private String nextCursor;
+}
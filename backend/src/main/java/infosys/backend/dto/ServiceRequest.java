@@ -14,4 +14,6 @@ public class ServiceRequest {
     private BigDecimal price;
     private String availability;
     private String location;
+    private Double latitude;   // optional; resolved from location when missing
+    private Double longitude;
 }
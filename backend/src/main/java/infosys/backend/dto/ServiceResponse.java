@@ -2,6 +2,7 @@ package infosys.backend.dto;
 
 import java.math.BigDecimal;
 
+import infosys.backend.model.ServiceProvider;
 import lombok.*;
 
 
@@ -9,7 +10,7 @@ import lombok.*;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class ServiceResponse {
     private Long id;
     private Long providerId;
@@ -20,4 +21,27 @@ public class ServiceResponse {
     private BigDecimal price;
     private String availability;
     private String location;
+    private Double latitude;
+    private Double longitude;
+    private long ratingCount;
+    private double averageRating;
+
+    public static ServiceResponse fromEntity(ServiceProvider service) {
+        return ServiceResponse.builder()
+                .id(service.getId())
+                .providerId(service.getProvider().getId())
+                .providerName(service.getProvider().getName())
+                .category(service.getCategory())
+                .subcategory(service.getSubcategory())
+                .description(service.getDescription())
+                .price(service.getPrice())
+                .availability(service.getAvailability())
+                .location(service.getLocation())
+                .latitude(service.getLatitude())
+                .longitude(service.getLongitude())
+                .ratingCount(service.getRatingCount())
+                .averageRating(service.getRatingCount() == 0 ? 0.0
+                        : (double) service.getRatingSum() / service.getRatingCount())
+                .build();
+    }
 }
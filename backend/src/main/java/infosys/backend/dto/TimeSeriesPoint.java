@@ -0,0 +1,16 @@
+package infosys.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// One bucket of a time series; start is the first day of the day/week/month bucket
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimeSeriesPoint {
+    private LocalDate start;
+    private long count;
+}
@@ -0,0 +1,14 @@
+package infosys.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One entry of the "top services" ranking; score = rating factor x recency-weighted bookings
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TopServiceResponse {
+    private ServiceResponse service;
+    private double score;
+}
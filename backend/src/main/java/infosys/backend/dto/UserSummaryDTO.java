@@ -0,0 +1,22 @@
+package infosys.backend.dto;
+
+import infosys.backend.enums.Role;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Flat user view for list endpoints (no password, no services graph)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSummaryDTO {
+    private Long id;
+    private String name;
+    private String email;
+    private Role role;
+    private String location;
+    private LocalDateTime createdAt;
+    private boolean verified;
+}
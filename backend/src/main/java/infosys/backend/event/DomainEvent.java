@@ -0,0 +1,19 @@
+package infosys.backend.event;
+
+import infosys.backend.enums.BookingStatus;
+import infosys.backend.enums.Role;
+
+/**
+ * Events published on Spring's application event bus by the write services.
+ * Listeners use @TransactionalEventListener, so they only see committed changes.
+ */
+public sealed interface DomainEvent {
+
+    record BookingCreated(Long bookingId, BookingStatus status) implements DomainEvent {}
+
+    record BookingStatusChanged(Long bookingId, BookingStatus from, BookingStatus to) implements DomainEvent {}
+
+    record ReviewAdded(Long reviewId, int rating) implements DomainEvent {}
+
+    record UserRegistered(Long userId, Role role) implements DomainEvent {}
+}
@@ -8,7 +8,9 @@ import java.time.LocalDateTime;
 import infosys.backend.enums.BookingStatus;
 
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+        @Index(name = "idx_bookings_created_at", columnList = "created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
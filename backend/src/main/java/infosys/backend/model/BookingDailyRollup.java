@@ -0,0 +1,40 @@
+package infosys.backend.model;
+
+import infosys.backend.enums.BookingStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+// Bookings per (day, status, service); maintained by BookingRollupService.
+// Category, location and provider are joined from services at read time, so service edits never
+// leave counts in a stale bucket.
+@Entity
+@Table(name = "booking_service_rollups", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_booking_service_rollup",
+                columnNames = {"day_bucket", "status", "service_id"})
+}, indexes = {
+        @Index(name = "idx_booking_service_rollup_service", columnList = "service_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingDailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "day_bucket", nullable = false)
+    private LocalDate day; // date of Booking.createdAt
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private BookingStatus status;
+
+    @Column(name = "service_id", nullable = false)
+    private Long serviceId;
+
+    @Column(name = "booking_count", nullable = false)
+    private long bookingCount;
+}
@@ -6,7 +6,14 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "chat_notifications")
+@Table(name = "chat_notifications", indexes = {
+        // unread lists, unread counts and the bulk mark-read updates
+        @Index(name = "idx_chat_notifications_receiver_unread", columnList = "receiver_id, is_read, sent_at"),
+        // paged /api/notifications/all
+        @Index(name = "idx_chat_notifications_receiver_sent", columnList = "receiver_id, sent_at, id"),
+        // retention job
+        @Index(name = "idx_chat_notifications_read_sent", columnList = "is_read, sent_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -37,6 +44,11 @@ public class ChatNotification {
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
+    // Messages this row stands for; > 1 once the compaction job collapsed a burst from one sender
+    @Column(name = "collapsed_count", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "INT NOT NULL DEFAULT 1")
+    private Integer collapsedCount;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -0,0 +1,46 @@
+package infosys.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// One row per (inbox owner, chat partner); maintained by ConversationService on every message
+@Entity
+@Table(name = "conversation_summaries",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_conversation_owner_other", columnNames = {"owner_id", "other_user_id"})
+        },
+        indexes = {
+                @Index(name = "idx_conversation_owner_last", columnList = "owner_id, last_message_at")
+        })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConversationSummary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    @Column(name = "other_user_id", nullable = false)
+    private Long otherUserId;
+
+    @Column(name = "last_message_id", nullable = false)
+    private Long lastMessageId;
+
+    @Column(name = "last_sender_id", nullable = false)
+    private Long lastSenderId;
+
+    @Column(name = "last_message_preview", length = 200)
+    private String lastMessagePreview;
+
+    @Column(name = "last_message_at")
+    private LocalDateTime lastMessageAt;
+
+    @Column(name = "unread_count", nullable = false)
+    private int unreadCount;
+}
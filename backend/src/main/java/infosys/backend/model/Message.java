@@ -5,6 +5,9 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(name = "message", indexes = {
+        @Index(name = "idx_message_conversation", columnList = "conversation_key, sent_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -23,8 +26,23 @@ public class Message {
     @JoinColumn(name = "receiver_id", nullable = false)
     private User receiver;
 
+    // "<smaller user id>:<larger user id>": same value in both directions of a chat
+    @Column(name = "conversation_key", length = 41)
+    private String conversationKey;
+
     @Column(columnDefinition = "TEXT", nullable = false)
     private String content;
 
     private LocalDateTime sentAt;
-}
\ No newline at end of file
+
+    @PrePersist
+    void fillConversationKey() {
+        if (conversationKey == null && sender != null && receiver != null) {
+            conversationKey = conversationKey(sender.getId(), receiver.getId());
+        }
+    }
+
+    public static String conversationKey(Long userA, Long userB) {
+        return Math.min(userA, userB) + ":" + Math.max(userA, userB);
+    }
+}
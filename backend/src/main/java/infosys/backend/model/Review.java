@@ -5,7 +5,10 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "reviews")
+@Table(name = "reviews", indexes = {
+        @Index(name = "idx_reviews_provider_rating", columnList = "provider_id, rating, id"),
+        @Index(name = "idx_reviews_service_rating", columnList = "service_id, rating, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
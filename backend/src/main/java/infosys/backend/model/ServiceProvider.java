@@ -4,13 +4,18 @@ import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
 
-import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "services")
+// Catalog pages are ordered by (price, id); InnoDB appends id to every secondary index
+@Table(name = "services", indexes = {
+        @Index(name = "idx_services_category_location_price", columnList = "category, location, price"),
+        @Index(name = "idx_services_category_price", columnList = "category, price"),
+        @Index(name = "idx_services_price", columnList = "price")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -25,7 +30,7 @@ public class ServiceProvider {
     // Provider offering the service
     @ManyToOne
     @JoinColumn(name = "provider_id", referencedColumnName = "id", nullable = false)
-    @JsonBackReference
+    @JsonIgnore
     private User provider;
 
     
@@ -45,6 +50,19 @@ public class ServiceProvider {
 
     private String location; // Human-readable location
 
+    // Optional coordinates (from the client or the local gazetteer)
+    private Double latitude;
+    private Double longitude;
+
+    // Running rating aggregates; written only by ReviewService's atomic updates and the reconcile job
+    @Column(name = "rating_count", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private long ratingCount;
+
+    @Column(name = "rating_sum", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private long ratingSum;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt; // Auto-generated timestamp
@@ -5,7 +5,7 @@ import java.util.List;
 
 import org.hibernate.annotations.CreationTimestamp;
 
-import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import infosys.backend.enums.Role;
 import jakarta.persistence.*;
@@ -18,6 +18,7 @@ import lombok.*;
 @AllArgsConstructor
 @Builder
 @ToString(exclude = "services")
+@EqualsAndHashCode(exclude = "services")
 public class User {
 
     @Id
@@ -41,11 +42,23 @@ public class User {
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
-    @OneToMany(mappedBy = "provider", cascade = CascadeType.ALL, orphanRemoval = true,fetch = FetchType.EAGER)
-    @JsonManagedReference
+    // LAZY: use UserRepository.findWithServicesById when the services are needed
+    @OneToMany(mappedBy = "provider", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @JsonIgnore
     private List<ServiceProvider> services;
 
     private boolean isVerified = false;
 
+    // Running rating aggregates; written only by ReviewService's atomic updates and the reconcile job
+    @JsonIgnore
+    @Column(name = "rating_count", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private long ratingCount;
+
+    @JsonIgnore
+    @Column(name = "rating_sum", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private long ratingSum;
+
 
 }
@@ -3,15 +3,19 @@ package infosys.backend.repository;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
 import infosys.backend.model.Booking;
 import infosys.backend.model.User;
 import infosys.backend.enums.BookingStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
@@ -33,23 +37,19 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     @Query("DELETE FROM Booking b WHERE b.provider.id = :userId")
     void deleteByProviderId(@Param("userId") Long userId);
 
+    // ✅ (serviceId, createdAt) of bookings that count towards rankings; streamed row by row
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"))
+    @Query("SELECT b.service.id, b.createdAt FROM Booking b " +
+           "WHERE b.status <> :excluded AND b.createdAt >= :since")
+    Stream<Object[]> streamCountedBookings(@Param("excluded") BookingStatus excluded,
+                                           @Param("since") LocalDateTime since);
+
+    // ✅ (serviceId, createdAt) of one customer's counted bookings on other providers' services (account deletion)
+    @Query("SELECT b.service.id, b.createdAt FROM Booking b " +
+           "WHERE b.customer.id = :customerId AND b.provider.id <> :customerId AND b.status <> :excluded")
+    List<Object[]> findCountedByCustomerId(@Param("customerId") Long customerId,
+                                           @Param("excluded") BookingStatus excluded);
+
     // ✅ Count bookings by status (used in analytics summary)
     long countByStatus(BookingStatus status);
-
-    // ✅ Monthly bookings (for line/bar chart)
-    @Query("SELECT FUNCTION('MONTHNAME', b.createdAt) AS month, COUNT(b.id) AS count " +
-           "FROM Booking b GROUP BY FUNCTION('MONTHNAME', b.createdAt) ORDER BY MIN(b.createdAt)")
-    List<Map<String, Object>> findBookingsPerMonth();
-
-    // ✅ Top providers by number of bookings
-    @Query("SELECT b.provider.name AS provider, COUNT(b.id) AS totalBookings " +
-           "FROM Booking b GROUP BY b.provider.name " +
-           "ORDER BY COUNT(b.id) DESC")
-    List<Map<String, Object>> findTopProviders();
-
-    // ✅ Top service categories by bookings
-    @Query("SELECT s.category AS category, COUNT(b.id) AS totalBookings " +
-           "FROM Booking b JOIN b.service s " +
-           "GROUP BY s.category ORDER BY COUNT(b.id) DESC")
-    List<Map<String, Object>> findTopServices();
 }
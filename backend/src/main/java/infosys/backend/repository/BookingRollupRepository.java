@@ -0,0 +1,93 @@
+package infosys.backend.repository;
+
+import infosys.backend.dto.AnalyticsView;
+import infosys.backend.model.BookingDailyRollup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface BookingRollupRepository extends JpaRepository<BookingDailyRollup, Long> {
+
+    // ✅ Atomic +delta on one bucket
+    @Modifying
+    @Query(value = "INSERT INTO booking_service_rollups (day_bucket, status, service_id, booking_count) " +
+                   "VALUES (:day, :status, :serviceId, :delta) " +
+                   "ON DUPLICATE KEY UPDATE booking_count = booking_count + :delta",
+           nativeQuery = true)
+    int increment(@Param("day") LocalDate day,
+                  @Param("status") String status,
+                  @Param("serviceId") Long serviceId,
+                  @Param("delta") long delta);
+
+    // ✅ Subtract one customer's bookings from their buckets (run before the bookings are bulk-deleted)
+    @Modifying
+    @Query(value = "UPDATE booking_service_rollups r JOIN (" +
+                   "SELECT DATE(b.created_at) AS day_bucket, b.status, b.service_id, COUNT(*) AS n " +
+                   "FROM bookings b WHERE b.customer_id = :customerId " +
+                   "AND b.created_at IS NOT NULL AND b.status IS NOT NULL " +
+                   "GROUP BY DATE(b.created_at), b.status, b.service_id) x " +
+                   "ON r.day_bucket = x.day_bucket AND r.status = x.status AND r.service_id = x.service_id " +
+                   "SET r.booking_count = r.booking_count - x.n",
+           nativeQuery = true)
+    int subtractCustomerBookings(@Param("customerId") Long customerId);
+
+    // ✅ Drop the buckets of deleted services (their bookings were bulk-deleted with them)
+    @Modifying
+    @Query("DELETE FROM BookingDailyRollup r WHERE r.serviceId IN :serviceIds")
+    int deleteByServiceIdIn(@Param("serviceIds") Collection<Long> serviceIds);
+
+    @Modifying
+    @Query("DELETE FROM BookingDailyRollup r")
+    int deleteAllRollups();
+
+    // ✅ Recompute every bucket from the bookings table (nightly reconcile)
+    @Modifying
+    @Query(value = "INSERT INTO booking_service_rollups (day_bucket, status, service_id, booking_count) " +
+                   "SELECT DATE(b.created_at), b.status, b.service_id, COUNT(*) " +
+                   "FROM bookings b " +
+                   "WHERE b.created_at IS NOT NULL AND b.status IS NOT NULL " +
+                   "GROUP BY DATE(b.created_at), b.status, b.service_id",
+           nativeQuery = true)
+    int rebuildFromBookings();
+
+    // ---------------- analytics reads ---------------- //
+
+    // ✅ Dashboard counters in one round trip
+    @Query(value = "SELECT " +
+                   "(SELECT COUNT(*) FROM users) AS totalUsers, " +
+                   "(SELECT COUNT(*) FROM users WHERE role = 'PROVIDER') AS totalProviders, " +
+                   "(SELECT COALESCE(SUM(booking_count), 0) FROM booking_service_rollups) AS totalBookings, " +
+                   "(SELECT COALESCE(SUM(booking_count), 0) FROM booking_service_rollups " +
+                   "WHERE status = 'COMPLETED') AS completedBookings",
+           nativeQuery = true)
+    AnalyticsView.Summary summary();
+
+    // ✅ (day, bookings) for days in [from, to); a range scan on the unique key's leading day column
+    @Query("SELECT r.day, SUM(r.bookingCount) FROM BookingDailyRollup r " +
+           "WHERE r.day >= :from AND r.day < :to GROUP BY r.day")
+    List<Object[]> sumPerDay(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT p.id AS providerId, p.name AS provider, SUM(r.bookingCount) AS totalBookings " +
+           "FROM BookingDailyRollup r JOIN ServiceProvider s ON s.id = r.serviceId JOIN s.provider p " +
+           "GROUP BY p.id, p.name HAVING SUM(r.bookingCount) > 0 " +
+           "ORDER BY SUM(r.bookingCount) DESC")
+    List<AnalyticsView.ProviderBookings> topProviders(Pageable pageable);
+
+    @Query("SELECT s.category AS category, SUM(r.bookingCount) AS totalBookings " +
+           "FROM BookingDailyRollup r JOIN ServiceProvider s ON s.id = r.serviceId " +
+           "GROUP BY s.category HAVING SUM(r.bookingCount) > 0 " +
+           "ORDER BY SUM(r.bookingCount) DESC")
+    List<AnalyticsView.CategoryBookings> topCategories(Pageable pageable);
+
+    @Query("SELECT s.location AS location, SUM(r.bookingCount) AS bookingCount " +
+           "FROM BookingDailyRollup r JOIN ServiceProvider s ON s.id = r.serviceId " +
+           "GROUP BY s.location HAVING SUM(r.bookingCount) > 0 " +
+           "ORDER BY SUM(r.bookingCount) DESC")
+    List<AnalyticsView.LocationBookings> topLocations(Pageable pageable);
+}
@@ -2,34 +2,92 @@ package infosys.backend.repository;
 
 import infosys.backend.model.ChatNotification;
 import infosys.backend.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
 
 @Repository
 public interface ChatNotificationRepository extends JpaRepository<ChatNotification, Long> {
     
-    List<ChatNotification> findByReceiverOrderBySentAtDesc(User receiver);
-    
     List<ChatNotification> findByReceiverAndIsReadFalseOrderBySentAtDesc(User receiver);
     
     long countByReceiverAndIsReadFalse(User receiver);
     
-    List<ChatNotification> findByReceiverAndSenderOrderBySentAtDesc(User receiver, User sender);
-    
-    // Check for duplicate notification within a time window
-    @Query("SELECT n FROM ChatNotification n WHERE n.sender = :sender AND n.receiver = :receiver " +
-           "AND n.messageContent = :content AND n.sentAt BETWEEN :startTime AND :endTime")
-    Optional<ChatNotification> findDuplicate(
-        @Param("sender") User sender, 
-        @Param("receiver") User receiver,
-        @Param("content") String content,
-        @Param("startTime") LocalDateTime startTime,
-        @Param("endTime") LocalDateTime endTime
-    );
+    // ✅ Single-statement mark-read paths (idx_chat_notifications_receiver_unread); return affected rows
+    @Modifying
+    @Query("UPDATE ChatNotification n SET n.isRead = true WHERE n.receiver.id = :receiverId AND n.isRead = false")
+    int markAllRead(@Param("receiverId") Long receiverId);
+
+    @Modifying
+    @Query("UPDATE ChatNotification n SET n.isRead = true " +
+           "WHERE n.receiver.id = :receiverId AND n.sender.id = :senderId AND n.isRead = false")
+    int markAllReadFromSender(@Param("receiverId") Long receiverId, @Param("senderId") Long senderId);
+
+    // ✅ One page of a user's notifications, newest first (idx_chat_notifications_receiver_sent)
+    @Query("SELECT n FROM ChatNotification n JOIN FETCH n.sender JOIN FETCH n.receiver " +
+           "WHERE n.receiver.id = :receiverId " +
+           "AND (:beforeSentAt IS NULL OR n.sentAt < :beforeSentAt " +
+           "OR (n.sentAt = :beforeSentAt AND n.id < :beforeId)) " +
+           "ORDER BY n.sentAt DESC, n.id DESC")
+    List<ChatNotification> findPage(@Param("receiverId") Long receiverId,
+                                    @Param("beforeSentAt") LocalDateTime beforeSentAt,
+                                    @Param("beforeId") Long beforeId,
+                                    Pageable pageable);
+
+    // ---------------- compaction (NotificationCompactionService) ---------------- //
+
+    // Unread notifications of one sender to one receiver, older than the cutoff
+    interface Burst {
+        Long getReceiverId();
+        Long getSenderId();
+        Long getKeepId();
+    }
+
+    // ✅ Delete one bounded batch of read notifications (idx_chat_notifications_read_sent)
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM chat_notifications WHERE is_read = TRUE AND sent_at < :cutoff LIMIT :limit",
+           nativeQuery = true)
+    int deleteReadBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    @Query(value = "SELECT receiver_id AS receiverId, sender_id AS senderId, MAX(id) AS keepId " +
+                   "FROM chat_notifications WHERE is_read = FALSE AND sent_at < :cutoff " +
+                   "GROUP BY receiver_id, sender_id HAVING COUNT(*) >= :minBurst LIMIT :limit",
+           nativeQuery = true)
+    List<Burst> findBursts(@Param("cutoff") LocalDateTime cutoff,
+                           @Param("minBurst") int minBurst,
+                           @Param("limit") int limit);
+
+    // ✅ Messages the rows below keepId stand for; locks them until the collapse commits
+    @Query(value = "SELECT COALESCE(SUM(collapsed_count), 0) FROM chat_notifications " +
+                   "WHERE receiver_id = :receiverId AND sender_id = :senderId " +
+                   "AND is_read = FALSE AND sent_at < :cutoff AND id < :keepId FOR UPDATE",
+           nativeQuery = true)
+    long lockCollapsible(@Param("receiverId") Long receiverId,
+                         @Param("senderId") Long senderId,
+                         @Param("cutoff") LocalDateTime cutoff,
+                         @Param("keepId") Long keepId);
+
+    // ✅ 0 when the kept row was read (or deleted) in the meantime
+    @Modifying
+    @Query(value = "UPDATE chat_notifications SET collapsed_count = collapsed_count + :absorbed " +
+                   "WHERE id = :keepId AND is_read = FALSE",
+           nativeQuery = true)
+    int absorbIntoUnread(@Param("keepId") Long keepId, @Param("absorbed") long absorbed);
+
+    @Modifying
+    @Query(value = "DELETE FROM chat_notifications WHERE receiver_id = :receiverId AND sender_id = :senderId " +
+                   "AND is_read = FALSE AND sent_at < :cutoff AND id < :keepId",
+           nativeQuery = true)
+    int deleteCollapsed(@Param("receiverId") Long receiverId,
+                        @Param("senderId") Long senderId,
+                        @Param("cutoff") LocalDateTime cutoff,
+                        @Param("keepId") Long keepId);
 }
\ No newline at end of file
@@ -0,0 +1,81 @@
+package infosys.backend.repository;
+
+import infosys.backend.dto.ConversationSummaryDTO;
+import infosys.backend.model.ConversationSummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ConversationSummaryRepository extends JpaRepository<ConversationSummary, Long> {
+
+    // ✅ Inbox of one user, most recent conversation first (idx_conversation_owner_last)
+    @Query("SELECT new infosys.backend.dto.ConversationSummaryDTO(c.otherUserId, u.name, c.lastMessagePreview, " +
+           "c.lastSenderId, c.lastMessageAt, c.unreadCount) " +
+           "FROM ConversationSummary c JOIN User u ON u.id = c.otherUserId " +
+           "WHERE c.ownerId = :ownerId ORDER BY c.lastMessageAt DESC")
+    List<ConversationSummaryDTO> findInbox(@Param("ownerId") Long ownerId, Pageable pageable);
+
+    // ✅ Record a message in one participant's row. Assignments run left to right, so every
+    //    column compares against the old last_message_id; an older message never overwrites a newer one.
+    @Modifying
+    @Query(value = "INSERT INTO conversation_summaries " +
+                   "(owner_id, other_user_id, last_message_id, last_sender_id, last_message_preview, " +
+                   "last_message_at, unread_count) " +
+                   "VALUES (:ownerId, :otherUserId, :messageId, :senderId, :preview, :sentAt, :unread) " +
+                   "ON DUPLICATE KEY UPDATE " +
+                   "last_sender_id = IF(:messageId > last_message_id, :senderId, last_sender_id), " +
+                   "last_message_preview = IF(:messageId > last_message_id, :preview, last_message_preview), " +
+                   "last_message_at = IF(:messageId > last_message_id, :sentAt, last_message_at), " +
+                   "last_message_id = GREATEST(last_message_id, :messageId), " +
+                   "unread_count = unread_count + :unread",
+           nativeQuery = true)
+    int upsert(@Param("ownerId") Long ownerId,
+               @Param("otherUserId") Long otherUserId,
+               @Param("messageId") Long messageId,
+               @Param("senderId") Long senderId,
+               @Param("preview") String preview,
+               @Param("sentAt") LocalDateTime sentAt,
+               @Param("unread") int unread);
+
+    @Modifying
+    @Query("UPDATE ConversationSummary c SET c.unreadCount = 0 " +
+           "WHERE c.ownerId = :ownerId AND c.otherUserId = :otherUserId AND c.unreadCount <> 0")
+    int clearUnread(@Param("ownerId") Long ownerId, @Param("otherUserId") Long otherUserId);
+
+    @Modifying
+    @Query("UPDATE ConversationSummary c SET c.unreadCount = 0 WHERE c.ownerId = :ownerId AND c.unreadCount <> 0")
+    int clearAllUnread(@Param("ownerId") Long ownerId);
+
+    @Modifying
+    @Query("UPDATE ConversationSummary c SET c.unreadCount = " +
+           "CASE WHEN c.unreadCount > :count THEN c.unreadCount - :count ELSE 0 END " +
+           "WHERE c.ownerId = :ownerId AND c.otherUserId = :otherUserId AND c.unreadCount > 0")
+    int decrementUnread(@Param("ownerId") Long ownerId, @Param("otherUserId") Long otherUserId,
+                        @Param("count") int count);
+
+    // ✅ Build every summary from existing messages (first start after the table was added).
+    //    Last message = highest id in either direction; unread = unread chat notifications.
+    @Modifying
+    @Query(value = "INSERT INTO conversation_summaries " +
+                   "(owner_id, other_user_id, last_message_id, last_sender_id, last_message_preview, " +
+                   "last_message_at, unread_count) " +
+                   "SELECT p.owner_id, p.other_id, m.id, m.sender_id, LEFT(m.content, 200), m.sent_at, " +
+                   "(SELECT COUNT(*) FROM chat_notifications n WHERE n.receiver_id = p.owner_id " +
+                   "AND n.sender_id = p.other_id AND n.is_read = FALSE) " +
+                   "FROM (SELECT t.owner_id, t.other_id, MAX(t.last_id) AS last_id FROM (" +
+                   "SELECT sender_id AS owner_id, receiver_id AS other_id, MAX(id) AS last_id " +
+                   "FROM message GROUP BY sender_id, receiver_id " +
+                   "UNION ALL " +
+                   "SELECT receiver_id, sender_id, MAX(id) FROM message GROUP BY receiver_id, sender_id" +
+                   ") t GROUP BY t.owner_id, t.other_id) p " +
+                   "JOIN message m ON m.id = p.last_id",
+           nativeQuery = true)
+    int rebuildFromMessages();
+}
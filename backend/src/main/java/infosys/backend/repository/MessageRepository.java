@@ -1,31 +1,37 @@
 package infosys.backend.repository;
 
+import infosys.backend.dto.MessageDTO;
 import infosys.backend.model.Message;
-import infosys.backend.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface MessageRepository extends JpaRepository<Message, Long> {
 
-    // Fetch all messages between two users
-    List<Message> findBySenderAndReceiverOrReceiverAndSenderOrderBySentAtAsc(
-            User sender1, User receiver1, User sender2, User receiver2
-    );
+    // ✅ One page of a conversation, newest first (walks idx_message_conversation backwards)
+    @Query("SELECT new infosys.backend.dto.MessageDTO(m.id, s.id, s.name, r.id, r.name, m.content, m.sentAt) " +
+           "FROM Message m JOIN m.sender s JOIN m.receiver r " +
+           "WHERE m.conversationKey = :conversationKey " +
+           "AND (:beforeSentAt IS NULL OR m.sentAt < :beforeSentAt " +
+           "OR (m.sentAt = :beforeSentAt AND m.id < :beforeId)) " +
+           "ORDER BY m.sentAt DESC, m.id DESC")
+    List<MessageDTO> findConversationPage(@Param("conversationKey") String conversationKey,
+                                          @Param("beforeSentAt") LocalDateTime beforeSentAt,
+                                          @Param("beforeId") Long beforeId,
+                                          Pageable pageable);
 
-    // Optional: fetch messages by booking/conversation ID if you add it later
-     @Query("SELECT m FROM Message m " +
-           "JOIN FETCH m.sender " +
-           "JOIN FETCH m.receiver " +
-           "WHERE (m.sender = :user1 AND m.receiver = :user2) " +
-           "   OR (m.sender = :user2 AND m.receiver = :user1) " +
-           "ORDER BY m.sentAt ASC")
-    List<Message> findMessagesBetweenUsersWithUsers(
-            @Param("user1") User user1,
-            @Param("user2") User user2
-    );
+    // ✅ Fill conversation_key on rows written before the column existed
+    @Modifying
+    @Query(value = "UPDATE message SET conversation_key = " +
+                   "CONCAT(LEAST(sender_id, receiver_id), ':', GREATEST(sender_id, receiver_id)) " +
+                   "WHERE conversation_key IS NULL",
+           nativeQuery = true)
+    int backfillConversationKeys();
 }
@@ -1,16 +1,22 @@
 package infosys.backend.repository;
 
+import infosys.backend.dto.ReviewFeedItemDTO;
 import infosys.backend.model.Review;
 import infosys.backend.model.ServiceProvider;
 import infosys.backend.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ReviewRepository extends JpaRepository<Review, Long> {
 
@@ -48,4 +54,46 @@ void deleteByProviderId(@Param("userId") Long userId);
 Optional<Review> findByBookingId(Long bookingId);
     boolean existsByBookingId(Long bookingId);
 
+    // ✅ Star counts per (provider, service, rating) for RatingStats; streamed row by row (MySQL needs MIN_VALUE)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"))
+    @Query("SELECT r.provider.id, r.service.id, r.rating, COUNT(r) FROM Review r " +
+           "WHERE r.rating IS NOT NULL GROUP BY r.provider.id, r.service.id, r.rating")
+    Stream<Object[]> streamRatingCounts();
+
+    // ✅ Same counts, limited to one customer's reviews on other providers' services (account deletion)
+    @Query("SELECT r.provider.id, r.service.id, r.rating, COUNT(r) FROM Review r " +
+           "WHERE r.customer.id = :customerId AND r.provider.id <> :customerId AND r.rating IS NOT NULL " +
+           "GROUP BY r.provider.id, r.service.id, r.rating")
+    List<Object[]> countRatingsByCustomer(@Param("customerId") Long customerId);
+
+    boolean existsByRatingNotNull();
+
+    // ✅ Keyset page of review rows, newest first
+    @Query("SELECT new infosys.backend.dto.ReviewFeedItemDTO(r.id, r.booking.id, c.id, c.name, r.provider.id, " +
+           "s.id, s.category, s.subcategory, r.rating, r.comment, r.reply, r.createdAt) " +
+           "FROM Review r JOIN r.customer c JOIN r.service s " +
+           "WHERE (:providerId IS NULL OR r.provider.id = :providerId) " +
+           "AND (:serviceId IS NULL OR s.id = :serviceId) " +
+           "AND (:beforeId IS NULL OR r.id < :beforeId) " +
+           "ORDER BY r.id DESC")
+    List<ReviewFeedItemDTO> findFeedNewest(@Param("providerId") Long providerId,
+                                           @Param("serviceId") Long serviceId,
+                                           @Param("beforeId") Long beforeId,
+                                           Pageable pageable);
+
+    // ✅ Keyset page of review rows, highest rating first (ties: newest first)
+    @Query("SELECT new infosys.backend.dto.ReviewFeedItemDTO(r.id, r.booking.id, c.id, c.name, r.provider.id, " +
+           "s.id, s.category, s.subcategory, r.rating, r.comment, r.reply, r.createdAt) " +
+           "FROM Review r JOIN r.customer c JOIN r.service s " +
+           "WHERE (:providerId IS NULL OR r.provider.id = :providerId) " +
+           "AND (:serviceId IS NULL OR s.id = :serviceId) " +
+           "AND r.rating IS NOT NULL " +
+           "AND (:beforeId IS NULL OR r.rating < :beforeRating " +
+           "OR (r.rating = :beforeRating AND r.id < :beforeId)) " +
+           "ORDER BY r.rating DESC, r.id DESC")
+    List<ReviewFeedItemDTO> findFeedByRating(@Param("providerId") Long providerId,
+                                             @Param("serviceId") Long serviceId,
+                                             @Param("beforeRating") Integer beforeRating,
+                                             @Param("beforeId") Long beforeId,
+                                             Pageable pageable);
 }
@@ -1,16 +1,25 @@
 package infosys.backend.repository;
 
 import infosys.backend.model.ServiceProvider;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.Map;
 
-public interface ServiceRepository extends JpaRepository<ServiceProvider, Long> {
+public interface ServiceRepository extends JpaRepository<ServiceProvider, Long>,
+        JpaSpecificationExecutor<ServiceProvider> {
 
     // Find all services by category
     List<ServiceProvider> findByCategory(String category);
@@ -18,13 +27,69 @@ public interface ServiceRepository extends JpaRepository<ServiceProvider, Long>
     // Find all services by provider
     List<ServiceProvider> findByProviderId(Long providerId);
 
+    // ✅ Ids of a provider's services (captured before a bulk delete)
+    @Query("SELECT s.id FROM ServiceProvider s WHERE s.provider.id = :providerId")
+    List<Long> findIdsByProviderId(@Param("providerId") Long providerId);
+
     @Transactional
 @Modifying
 @Query("DELETE FROM ServiceProvider s WHERE s.provider.id = :userId")
 void deleteByProviderId(@Param("userId") Long userId);
-@Query("SELECT s.location AS location, COUNT(b.id) AS bookingCount " +
-           "FROM Booking b JOIN b.service s " +
-           "GROUP BY s.location ORDER BY bookingCount DESC")
-    List<Map<String, Object>> findBookingsByLocation();
-    
+
+    // ✅ Set the coordinates of one service (no entity merge, no other columns touched)
+    @Transactional
+    @Modifying
+    @Query("UPDATE ServiceProvider s SET s.latitude = :latitude, s.longitude = :longitude WHERE s.id = :id")
+    int updateCoordinates(@Param("id") Long id, @Param("latitude") Double latitude, @Param("longitude") Double longitude);
+
+    // ✅ All services with their provider in one query (no per-provider selects)
+    @Query("SELECT s FROM ServiceProvider s JOIN FETCH s.provider")
+    List<ServiceProvider> findAllWithProvider();
+
+    // ✅ Services by id with their provider in one query (search results)
+    @Query("SELECT s FROM ServiceProvider s JOIN FETCH s.provider WHERE s.id IN :ids")
+    List<ServiceProvider> findAllWithProviderByIdIn(@Param("ids") Collection<Long> ids);
+
+    // ✅ Atomically shift the rating aggregates of one service (review added, changed or removed)
+    @Modifying
+    @Query("UPDATE ServiceProvider s SET s.ratingCount = s.ratingCount + :count, " +
+           "s.ratingSum = s.ratingSum + :sum WHERE s.id = :serviceId")
+    int adjustRating(@Param("serviceId") Long serviceId, @Param("count") long count, @Param("sum") long sum);
+
+    // ✅ Recompute every service's rating aggregates from the reviews table
+    @Modifying
+    @Query("UPDATE ServiceProvider s SET " +
+           "s.ratingCount = (SELECT COUNT(r.rating) FROM Review r WHERE r.service.id = s.id), " +
+           "s.ratingSum = (SELECT COALESCE(SUM(r.rating), 0) FROM Review r WHERE r.service.id = s.id)")
+    int reconcileRatings();
+
+    // ✅ False until the aggregates have been backfilled once (the columns start at 0)
+    boolean existsByRatingCountGreaterThan(long ratingCount);
+
+    // ✅ Catalog page filter, cheapest first: only the filters that are set become predicates, so
+    //    with category (+ location) the (category, location, price) index serves both the WHERE
+    //    and the (price, id) keyset order. The cursor is the last row's (price, id).
+    static Specification<ServiceProvider> catalogPage(String category, String subcategory, String location,
+                                                      BigDecimal minPrice, BigDecimal maxPrice,
+                                                      BigDecimal afterPrice, Long afterId) {
+        return (root, query, cb) -> {
+            if (query.getResultType() != Long.class && query.getResultType() != long.class) {
+                root.fetch("provider", JoinType.INNER); // not for count queries
+            }
+            Path<BigDecimal> price = root.get("price");
+            List<Predicate> predicates = new ArrayList<>();
+            if (category != null) predicates.add(cb.equal(root.get("category"), category));
+            if (location != null) predicates.add(cb.equal(root.get("location"), location));
+            if (subcategory != null) predicates.add(cb.equal(root.get("subcategory"), subcategory));
+            if (minPrice != null) predicates.add(cb.greaterThanOrEqualTo(price, minPrice));
+            if (maxPrice != null) predicates.add(cb.lessThanOrEqualTo(price, maxPrice));
+            if (afterPrice != null && afterId != null) {
+                predicates.add(cb.or(cb.greaterThan(price, afterPrice),
+                        cb.and(cb.equal(price, afterPrice), cb.greaterThan(root.get("id"), afterId))));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    Sort CATALOG_PAGE_ORDER = Sort.by("price", "id");
 }
@@ -1,8 +1,13 @@
 package infosys.backend.repository;
 
+import infosys.backend.dto.UserSummaryDTO;
 import infosys.backend.enums.Role;
 import infosys.backend.model.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -19,4 +24,34 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     // ✅ Count users by role (used in analytics)
     long countByRole(Role role);
+
+    // ✅ User together with its services (services are LAZY otherwise)
+    @EntityGraph(attributePaths = "services")
+    Optional<User> findWithServicesById(Long id);
+
+    // ✅ Flat projections for list endpoints (single query, no services)
+    @Query("SELECT new infosys.backend.dto.UserSummaryDTO(u.id, u.name, u.email, u.role, u.location, u.createdAt, u.isVerified) " +
+           "FROM User u")
+    List<UserSummaryDTO> findAllSummaries();
+
+    @Query("SELECT new infosys.backend.dto.UserSummaryDTO(u.id, u.name, u.email, u.role, u.location, u.createdAt, u.isVerified) " +
+           "FROM User u WHERE u.role = :role")
+    List<UserSummaryDTO> findSummariesByRole(@Param("role") Role role);
+
+    @Query("SELECT new infosys.backend.dto.UserSummaryDTO(u.id, u.name, u.email, u.role, u.location, u.createdAt, u.isVerified) " +
+           "FROM User u WHERE u.role = :role AND u.isVerified = true")
+    List<UserSummaryDTO> findVerifiedSummariesByRole(@Param("role") Role role);
+
+    // ✅ Atomically shift the rating aggregates of one provider (review added, changed or removed)
+    @Modifying
+    @Query("UPDATE User u SET u.ratingCount = u.ratingCount + :count, " +
+           "u.ratingSum = u.ratingSum + :sum WHERE u.id = :userId")
+    int adjustRating(@Param("userId") Long userId, @Param("count") long count, @Param("sum") long sum);
+
+    // ✅ Recompute every provider's rating aggregates from the reviews table
+    @Modifying
+    @Query("UPDATE User u SET " +
+           "u.ratingCount = (SELECT COUNT(r.rating) FROM Review r WHERE r.provider.id = u.id), " +
+           "u.ratingSum = (SELECT COALESCE(SUM(r.rating), 0) FROM Review r WHERE r.provider.id = u.id)")
+    int reconcileRatings();
 }
@@ -0,0 +1,16 @@
+package infosys.backend.security;
+
+import java.time.Instant;
+
+/**
+ * Typed view of a verified JWT, produced by {@link JwtUtil#parseAndValidate(String)}.
+ * userId and name are null for tokens issued before they were added to the payload;
+ * issuedAt has millisecond precision when the token carries the iat_ms claim.
+ */
+public record JwtClaims(String subject, String role, Long userId, String name,
+                        Instant issuedAt, Instant expiresAt) {
+
+    public boolean isExpired() {
+        return !Instant.now().isBefore(expiresAt);
+    }
+}
@@ -0,0 +1,47 @@
+package infosys.backend.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short-lived list of users whose existing tokens must no longer be trusted
+ * (deleted users, role or email changes). Only needed in stateless auth mode,
+ * where the role comes from the token instead of the database.
+ * An entry is kept for as long as a token issued before it could still be valid.
+ */
+@Component
+public class JwtRevocationList {
+
+    private final Map<Long, Instant> revokedAt = new ConcurrentHashMap<>();
+
+    private final long retentionSeconds;
+
+    public JwtRevocationList(@Value("${jwt.revocation.retention-seconds:3600}") long retentionSeconds) {
+        this.retentionSeconds = retentionSeconds;
+    }
+
+    // ✅ Reject every token of this user issued up to now
+    public void revoke(Long userId) {
+        if (userId == null) return;
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        revokedAt.put(userId, now);
+
+        Instant cutoff = now.minusSeconds(retentionSeconds);
+        revokedAt.values().removeIf(at -> at.isBefore(cutoff));
+    }
+
+    // Only tokens issued strictly after the revocation pass. issuedAt has millisecond precision
+    // (JwtUtil's iat_ms claim); older tokens only carry the whole second, which rounds down and
+    // so still rejects a token from the revocation's second.
+    public boolean isRevoked(Long userId, Instant issuedAt) {
+        Instant at = revokedAt.get(userId);
+        if (at == null) return false;
+        if (issuedAt == null) return true;
+        return !issuedAt.isAfter(at);
+    }
+}
@@ -0,0 +1,115 @@
+package infosys.backend.security;
+
+import infosys.backend.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded cache of already verified JWTs.
+ * Keyed by the SHA-256 of the raw token, so the token itself is never kept in memory.
+ * Each entry lives until the token expires or the TTL cap is reached, whichever is first.
+ */
+@Component
+public class JwtTokenCache {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final int maxEntries;
+    private final long ttlMillis;
+
+    public JwtTokenCache(@Value("${jwt.cache.max-entries:10000}") int maxEntries,
+                         @Value("${jwt.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    // Verified claims + a detached copy of the authenticated user
+    public record Entry(JwtClaims claims, User principal, long expiresAt) {
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+
+    // ✅ Return the cached entry for a token, or null if missing/expired
+    public Entry get(String token) {
+        String key = hash(token);
+        Entry entry = entries.get(key);
+        if (entry == null) return null;
+
+        if (entry.isExpired(System.currentTimeMillis())) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    // ✅ Cache a verified token; the principal is copied so no JPA state leaks across requests
+    public Entry put(String token, JwtClaims claims, User user) {
+        long now = System.currentTimeMillis();
+        long expiresAt = Math.min(claims.expiresAt().toEpochMilli(), now + ttlMillis);
+
+        Entry entry = new Entry(claims, snapshot(user), expiresAt);
+        if (entries.size() >= maxEntries) {
+            evict(now);
+        }
+        entries.put(hash(token), entry);
+        return entry;
+    }
+
+    // ✅ Drop every cached token of a user (called when the user is updated, verified or deleted)
+    public void invalidateUser(Long userId) {
+        if (userId == null) return;
+        entries.values().removeIf(e -> userId.equals(e.principal().getId()));
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // Remove expired entries first; if still full, drop arbitrary entries until below the bound
+    private void evict(long now) {
+        entries.values().removeIf(e -> e.isExpired(now));
+
+        Iterator<String> it = entries.keySet().iterator();
+        while (entries.size() >= maxEntries && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    // Detached copy without password and services
+    private static User snapshot(User user) {
+        User copy = User.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .email(user.getEmail())
+                .role(user.getRole())
+                .location(user.getLocation())
+                .createdAt(user.getCreatedAt())
+                .build();
+        copy.setVerified(user.isVerified());
+        return copy;
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = digest.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
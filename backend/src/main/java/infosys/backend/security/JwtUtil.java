@@ -3,6 +3,7 @@ package infosys.backend.security;
 import infosys.backend.model.User;
 import infosys.backend.repository.UserRepository;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -12,6 +13,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
+import java.time.Instant;
 import java.util.Collections;
 import java.util.Date;
 
@@ -24,6 +26,9 @@ public class JwtUtil {
     private final String secret = "fixitnowSecretKey123fixitnowSecretKey123"; 
     private final long expiration = 3600000; // 1 hour
     private final Key key = Keys.hmacShaKeyFor(secret.getBytes());
+    private static final String ISSUED_AT_MILLIS = "iat_ms";
+
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(key).build(); // thread-safe, built once
 
     // ---------------- JWT Methods ---------------- //
 
@@ -38,31 +43,60 @@ public class JwtUtil {
                 .compact();
     }
 
+    // Generate JWT with role, user id and name (enough to authenticate without a DB lookup)
+    public String generateToken(User user) {
+        Date now = new Date();
+        return Jwts.builder()
+                .setSubject(user.getEmail())
+                .claim("role", user.getRole().name())
+                .claim("uid", user.getId())
+                .claim("name", user.getName())
+                .claim(ISSUED_AT_MILLIS, now.getTime()) // iat only has second precision
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + expiration))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    /**
+     * Verify the token once and return its claims.
+     * Throws JwtException if the signature is invalid or the token has expired.
+     */
+    public JwtClaims parseAndValidate(String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        Number uid = claims.get("uid", Number.class);
+        Number issuedAtMillis = claims.get(ISSUED_AT_MILLIS, Number.class);
+        Instant issuedAt = issuedAtMillis != null ? Instant.ofEpochMilli(issuedAtMillis.longValue())
+                : claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null;
+        return new JwtClaims(
+                claims.getSubject(),
+                claims.get("role", String.class),
+                uid != null ? uid.longValue() : null,
+                claims.get("name", String.class),
+                issuedAt,
+                claims.getExpiration().toInstant()
+        );
+    }
+
     // Extract username/email
     public String extractUsername(String token) {
-        return getClaims(token).getSubject();
+        return parseAndValidate(token).subject();
     }
 
     // Extract role
     public String extractRole(String token) {
-        return getClaims(token).get("role", String.class);
+        return parseAndValidate(token).role();
     }
 
     // Validate token
     public boolean validateToken(String token, String email) {
-        return extractUsername(token).equals(email) && !isTokenExpired(token);
-    }
-
-    private boolean isTokenExpired(String token) {
-        return getClaims(token).getExpiration().before(new Date());
+        JwtClaims claims = parseAndValidate(token);
+        return claims.subject().equals(email) && !claims.isExpired();
     }
 
-    private Claims getClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    // Signing key, for benchmarks that rebuild the parser per call
+    Key signingKey() {
+        return key;
     }
 
     // ---------------- WebSocket Authentication ---------------- //
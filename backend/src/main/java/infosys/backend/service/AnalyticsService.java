@@ -1,59 +1,166 @@
 package infosys.backend.service;
 
-import java.util.HashMap;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
-import infosys.backend.enums.BookingStatus;
-import infosys.backend.enums.Role;
-import infosys.backend.repository.BookingRepository;
-import infosys.backend.repository.ReviewRepository;
-import infosys.backend.repository.ServiceRepository;
-import infosys.backend.repository.UserRepository;
+import infosys.backend.dto.AnalyticsView;
+import infosys.backend.dto.TimeSeriesPoint;
+import infosys.backend.enums.TimeGranularity;
+import infosys.backend.repository.BookingRollupRepository;
 import lombok.RequiredArgsConstructor;
 
 @Service
 @RequiredArgsConstructor
 public class AnalyticsService {
 
-    private final UserRepository userRepo;
-    private final BookingRepository bookingRepo;
-    private final ServiceRepository serviceRepo;
-    private final ReviewRepository reviewRepo;
+    private static final Logger log = LoggerFactory.getLogger(AnalyticsService.class);
+
+    // Booking figures come from booking_service_rollups (see BookingRollupService), whose size
+    // grows with days x statuses x services, not with the number of bookings
+    private final BookingRollupRepository rollupRepo;
+    private final RatingStats ratingStats;
+
+    // Long ranges are split into chunks of daily rows queried side by side
+    private static final int CHUNK_DAYS = 92;
+    private static final int MAX_BUCKETS = 3700;
+
+    // Series chunks and background summary refreshes
+    private final ExecutorService analyticsExecutor = Executors.newFixedThreadPool(4, r -> {
+        Thread t = new Thread(r, "analytics-worker");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Summary served stale-while-revalidate: after the TTL one background refresh runs
+    // while callers keep getting the previous value
+    private record CachedSummary(Map<String, Object> value, long computedAt) {}
+
+    @Value("${analytics.summary.ttl-seconds:30}")
+    private long summaryTtlSeconds;
+    private volatile CachedSummary summary;
+    private final AtomicBoolean summaryRefreshing = new AtomicBoolean();
 
     // ✅ Overall Summary Stats
     public Map<String, Object> getSummary() {
-        Map<String, Object> summary = new HashMap<>();
-        summary.put("totalUsers", userRepo.count());
-        summary.put("totalProviders", userRepo.countByRole(Role.PROVIDER));
-        summary.put("totalBookings", bookingRepo.count());
-        summary.put("completedBookings", bookingRepo.countByStatus(BookingStatus.COMPLETED));
-        summary.put("totalReviews", reviewRepo.count());
-        return summary;
+        CachedSummary cached = summary;
+        if (cached == null) {
+            synchronized (this) {
+                if (summary == null) summary = computeSummary();
+                return summary.value();
+            }
+        }
+        if (System.currentTimeMillis() - cached.computedAt() > summaryTtlSeconds * 1000
+                && summaryRefreshing.compareAndSet(false, true)) {
+            analyticsExecutor.execute(() -> {
+                try {
+                    summary = computeSummary();
+                } catch (RuntimeException e) {
+                    log.error("Failed to refresh analytics summary", e);
+                } finally {
+                    summaryRefreshing.set(false);
+                }
+            });
+        }
+        return cached.value();
+    }
+
+    // One native query for the database counters; reviews come from the in-memory RatingStats
+    private CachedSummary computeSummary() {
+        AnalyticsView.Summary row = rollupRepo.summary();
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("totalUsers", row.getTotalUsers());
+        value.put("totalProviders", row.getTotalProviders());
+        value.put("totalBookings", row.getTotalBookings());
+        value.put("completedBookings", row.getCompletedBookings());
+        value.put("totalReviews", ratingStats.totalReviews());
+        return new CachedSummary(Collections.unmodifiableMap(value), System.currentTimeMillis());
+    }
+
+    // ✅ Bookings of the last 12 months (one bucket per calendar month, year-aware)
+    public List<TimeSeriesPoint> getBookingsPerMonth() {
+        return getBookingSeries(null, null, "month");
+    }
+
+    /**
+     * ✅ Bookings per day/week/month between from and to (both inclusive), one point per bucket,
+     * zero-filled. Defaults: to = today, from = 30 days / 12 weeks / 12 months before.
+     */
+    public List<TimeSeriesPoint> getBookingSeries(LocalDate from, LocalDate to, String granularity) {
+        TimeGranularity g = TimeGranularity.parse(granularity == null ? "day" : granularity);
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : switch (g) {
+            case DAY -> end.minusDays(29);
+            case WEEK -> g.bucketStart(end).minusWeeks(11);
+            case MONTH -> g.bucketStart(end).minusMonths(11);
+        };
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        LocalDate endExclusive = end.plusDays(1);
+
+        // Dense buckets first, so days without bookings still show up as 0
+        Map<LocalDate, Long> buckets = new LinkedHashMap<>();
+        for (LocalDate b = g.bucketStart(start); b.isBefore(endExclusive); b = g.next(b)) {
+            if (buckets.size() == MAX_BUCKETS) {
+                throw new IllegalArgumentException("Range too large for granularity " + g.name().toLowerCase());
+            }
+            buckets.put(b, 0L);
+        }
+
+        List<CompletableFuture<List<Object[]>>> chunks = new ArrayList<>();
+        for (LocalDate chunkStart = start; chunkStart.isBefore(endExclusive); chunkStart = chunkStart.plusDays(CHUNK_DAYS)) {
+            LocalDate from0 = chunkStart;
+            LocalDate to0 = chunkStart.plusDays(CHUNK_DAYS).isBefore(endExclusive) ? chunkStart.plusDays(CHUNK_DAYS) : endExclusive;
+            chunks.add(chunks.isEmpty() && !to0.isBefore(endExclusive)
+                    ? CompletableFuture.completedFuture(rollupRepo.sumPerDay(from0, to0)) // single chunk: no hand-off
+                    : CompletableFuture.supplyAsync(() -> rollupRepo.sumPerDay(from0, to0), analyticsExecutor));
+        }
+
+        for (CompletableFuture<List<Object[]>> chunk : chunks) {
+            for (Object[] row : chunk.join()) {
+                LocalDate day = (LocalDate) row[0];
+                long count = ((Number) row[1]).longValue();
+                buckets.merge(g.bucketStart(day), count, Long::sum);
+            }
+        }
+
+        List<TimeSeriesPoint> series = new ArrayList<>(buckets.size());
+        buckets.forEach((bucket, count) -> series.add(new TimeSeriesPoint(bucket, count)));
+        return series;
     }
 
-    // ✅ Bookings grouped by month
-    public List<Map<String, Object>> getBookingsPerMonth() {
-        return bookingRepo.findBookingsPerMonth();
+    @PreDestroy
+    public void shutdown() {
+        analyticsExecutor.shutdownNow();
     }
 
-    // ✅ Top 5 providers by total bookings
-    public List<Map<String, Object>> getTopProviders() {
-        return bookingRepo.findTopProviders()
-                          .stream()
-                          .limit(5)
-                          .toList();
+    // ✅ Top providers by total bookings (LIMIT runs in the database)
+    public List<AnalyticsView.ProviderBookings> getTopProviders(int limit) {
+        return rollupRepo.topProviders(PageRequest.of(0, limit));
     }
 
     // ✅ Most booked service categories
-    public List<Map<String, Object>> getTopServices() {
-        return bookingRepo.findTopServices();
+    public List<AnalyticsView.CategoryBookings> getTopServices(int limit) {
+        return rollupRepo.topCategories(PageRequest.of(0, limit));
     }
 
     // ✅ Location trends (most active areas)
-    public List<Map<String, Object>> getLocationTrends() {
-        return serviceRepo.findBookingsByLocation();
+    public List<AnalyticsView.LocationBookings> getLocationTrends(int limit) {
+        return rollupRepo.topLocations(PageRequest.of(0, limit));
     }
 }
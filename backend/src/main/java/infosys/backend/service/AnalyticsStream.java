@@ -0,0 +1,197 @@
+package infosys.backend.service;
+
+import infosys.backend.enums.BookingStatus;
+import infosys.backend.enums.Role;
+import infosys.backend.event.DomainEvent;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live admin dashboard feed over server-sent events.
+ *
+ * Domain events only bump counters; a scheduled flush (at most once per interval) turns
+ * whatever accumulated into one "delta" event and fans it out to every connected admin.
+ * New connections first get a "summary" event as the baseline to apply deltas to.
+ *
+ * The writes happen on a small sender pool, never on the shared scheduler thread. A client
+ * whose previous event is still being written when the next one is due is dropped, so one
+ * stalled connection cannot pile up work or delay the others.
+ */
+@Component
+public class AnalyticsStream {
+
+    private static final long HEARTBEAT_MILLIS = 15_000;
+
+    // busy: a send for this emitter is queued or in progress; dropped: close it once that send returns
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        final AtomicBoolean busy = new AtomicBoolean();
+        volatile boolean dropped;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ExecutorService sendExecutor;
+
+    private final LongAdder newBookings = new LongAdder();
+    private final Map<BookingStatus, LongAdder> statusDeltas = new EnumMap<>(BookingStatus.class);
+    private final LongAdder newReviews = new LongAdder();
+    private final LongAdder newReviewRatingSum = new LongAdder();
+    private final LongAdder newUsers = new LongAdder();
+    private final LongAdder newProviders = new LongAdder();
+
+    private final AnalyticsService analyticsService;
+    private final long timeoutMillis;
+    private volatile long lastSentAt = System.currentTimeMillis();
+
+    public AnalyticsStream(AnalyticsService analyticsService,
+                           @Value("${analytics.stream.timeout-minutes:30}") long timeoutMinutes,
+                           @Value("${analytics.stream.send-threads:2}") int sendThreads) {
+        this.analyticsService = analyticsService;
+        this.timeoutMillis = timeoutMinutes * 60_000;
+        this.sendExecutor = Executors.newFixedThreadPool(sendThreads, r -> {
+            Thread t = new Thread(r, "analytics-sse");
+            t.setDaemon(true);
+            return t;
+        });
+        for (BookingStatus status : BookingStatus.values()) {
+            statusDeltas.put(status, new LongAdder());
+        }
+    }
+
+    // ✅ New subscriber; the client reconnects after the timeout (EventSource does so automatically)
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        try {
+            emitter.send(SseEmitter.event().name("summary").data(analyticsService.getSummary()));
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+            return emitter;
+        }
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    // ---------------- event bus ---------------- //
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(DomainEvent event) {
+        if (event instanceof DomainEvent.BookingCreated e) {
+            newBookings.increment();
+            if (e.status() != null) statusDeltas.get(e.status()).increment();
+        } else if (event instanceof DomainEvent.BookingStatusChanged e) {
+            if (e.from() != null) statusDeltas.get(e.from()).decrement();
+            if (e.to() != null) statusDeltas.get(e.to()).increment();
+        } else if (event instanceof DomainEvent.ReviewAdded e) {
+            newReviews.increment();
+            newReviewRatingSum.add(e.rating());
+        } else if (event instanceof DomainEvent.UserRegistered e) {
+            newUsers.increment();
+            if (e.role() == Role.PROVIDER) newProviders.increment();
+        }
+    }
+
+    // ---------------- fan-out ---------------- //
+
+    @Scheduled(fixedRateString = "${analytics.stream.interval-ms:1000}")
+    public void flush() {
+        // Drain even without subscribers so a new admin never receives stale deltas
+        Map<String, Object> delta = drain();
+        if (subscribers.isEmpty()) return;
+
+        long now = System.currentTimeMillis();
+        if (delta != null) {
+            delta.put("at", now);
+            broadcast(SseEmitter.event().name("delta").data(delta));
+        } else if (now - lastSentAt >= HEARTBEAT_MILLIS) {
+            broadcast(SseEmitter.event().comment("heartbeat")); // keeps proxies from closing idle streams
+        } else {
+            return;
+        }
+        lastSentAt = now;
+    }
+
+    private Map<String, Object> drain() {
+        Map<String, Object> delta = new LinkedHashMap<>();
+        putIfNonZero(delta, "newBookings", newBookings.sumThenReset());
+        Map<String, Long> statuses = new LinkedHashMap<>();
+        statusDeltas.forEach((status, adder) -> {
+            long n = adder.sumThenReset();
+            if (n != 0) statuses.put(status.name(), n);
+        });
+        if (!statuses.isEmpty()) delta.put("bookingStatuses", statuses);
+        putIfNonZero(delta, "newReviews", newReviews.sumThenReset());
+        putIfNonZero(delta, "newReviewRatingSum", newReviewRatingSum.sumThenReset());
+        putIfNonZero(delta, "newUsers", newUsers.sumThenReset());
+        putIfNonZero(delta, "newProviders", newProviders.sumThenReset());
+        return delta.isEmpty() ? null : delta;
+    }
+
+    private static void putIfNonZero(Map<String, Object> map, String key, long value) {
+        if (value != 0) map.put(key, value);
+    }
+
+    private void broadcast(SseEmitter.SseEventBuilder event) {
+        Set<ResponseBodyEmitter.DataWithMediaType> data = event.build(); // built once, shared by all sends
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.busy.compareAndSet(false, true)) {
+                // Still writing the previous event: stop feeding it; it is closed once that write returns
+                subscriber.dropped = true;
+                subscribers.remove(subscriber);
+                continue;
+            }
+            try {
+                sendExecutor.execute(() -> send(subscriber, data));
+            } catch (RejectedExecutionException e) {
+                subscriber.busy.set(false); // shutting down
+            }
+        }
+    }
+
+    private void send(Subscriber subscriber, Set<ResponseBodyEmitter.DataWithMediaType> data) {
+        try {
+            subscriber.emitter.send(data);
+        } catch (IOException | IllegalStateException e) {
+            subscribers.remove(subscriber); // client went away
+            subscriber.emitter.completeWithError(e);
+            return;
+        } finally {
+            subscriber.busy.set(false);
+        }
+        if (subscriber.dropped) subscriber.emitter.complete();
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sendExecutor.shutdownNow();
+    }
+}
@@ -2,10 +2,12 @@ package infosys.backend.service;
 
 import infosys.backend.dto.LoginRequest;
 import infosys.backend.dto.RegisterRequest;
+import infosys.backend.event.DomainEvent;
 import infosys.backend.model.User;
 import infosys.backend.repository.UserRepository;
 import infosys.backend.security.JwtUtil;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -16,6 +18,7 @@ public class AuthService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
+    private final ApplicationEventPublisher events;
 
     // ✅ Register: save user only (Customer/Admin)
     public User register(RegisterRequest request) {
@@ -30,7 +33,9 @@ public class AuthService {
         user.setRole(request.getRole());
         user.setLocation(request.getLocation());
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        events.publishEvent(new DomainEvent.UserRegistered(saved.getId(), saved.getRole()));
+        return saved;
     }
 
     // ✅ Login: validate and return JWT token with role
@@ -42,6 +47,6 @@ public class AuthService {
             throw new RuntimeException("Invalid credentials");
         }
 
-        return jwtUtil.generateToken(user.getEmail(), user.getRole().name());
+        return jwtUtil.generateToken(user);
     }
 }
@@ -0,0 +1,80 @@
+package infosys.backend.service;
+
+import infosys.backend.enums.BookingStatus;
+import infosys.backend.model.Booking;
+import infosys.backend.repository.BookingRepository;
+import infosys.backend.repository.BookingRollupRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+
+/**
+ * Keeps booking_service_rollups in step with the bookings table so analytics read a few
+ * thousand pre-aggregated rows instead of scanning every booking.
+ *
+ * BookingService moves one count per write and the bulk deletes of services and users adjust
+ * the buckets they empty, all in the writer's transaction. Buckets are keyed by service, so
+ * category or location edits need no maintenance; the nightly reconcile repairs any drift.
+ */
+@Service
+@RequiredArgsConstructor
+public class BookingRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingRollupService.class);
+
+    private final BookingRollupRepository rollupRepository;
+    private final BookingRepository bookingRepository;
+
+    // ✅ A booking now counts under this status
+    public void added(Booking booking, BookingStatus status) {
+        move(booking, status, 1);
+    }
+
+    // ✅ A booking no longer counts under this status
+    public void removed(Booking booking, BookingStatus status) {
+        move(booking, status, -1);
+    }
+
+    // ✅ A customer's bookings are about to be bulk-deleted
+    public void removeCustomerBookings(Long customerId) {
+        rollupRepository.subtractCustomerBookings(customerId);
+    }
+
+    // ✅ These services were deleted together with all their bookings
+    public void servicesDeleted(Collection<Long> serviceIds) {
+        if (!serviceIds.isEmpty()) rollupRepository.deleteByServiceIdIn(serviceIds);
+    }
+
+    private void move(Booking booking, BookingStatus status, long delta) {
+        if (status == null || booking.getCreatedAt() == null || booking.getService() == null) {
+            return; // not representable in a bucket; the nightly reconcile skips it too
+        }
+        rollupRepository.increment(booking.getCreatedAt().toLocalDate(), status.name(),
+                booking.getService().getId(), delta);
+    }
+
+    // ✅ Rebuild all buckets from the bookings table
+    @Transactional
+    @Scheduled(cron = "${analytics.rollup.reconcile-cron:0 15 3 * * *}")
+    public void reconcile() {
+        rollupRepository.deleteAllRollups();
+        int buckets = rollupRepository.rebuildFromBookings();
+        log.info("Booking rollups reconciled: {} buckets", buckets);
+    }
+
+    // First start after the rollup table was added: fill it right away
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (rollupRepository.count() == 0 && bookingRepository.count() > 0) {
+            reconcile();
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package infosys.backend.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import infosys.backend.enums.BookingStatus;
+import infosys.backend.event.DomainEvent;
 import infosys.backend.model.Booking;
 import infosys.backend.model.User;
 import infosys.backend.repository.BookingRepository;
@@ -17,9 +20,25 @@ public class BookingService {
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private ServiceRanking serviceRanking;
+
+    @Autowired
+    private BookingRollupService rollupService;
+
+    @Autowired
+    private ApplicationEventPublisher events;
+
     // Create a new booking
+    @Transactional
     public Booking createBooking(Booking booking) {
-        return bookingRepository.save(booking);
+        Booking saved = bookingRepository.save(booking);
+        rollupService.added(saved, saved.getStatus());
+        events.publishEvent(new DomainEvent.BookingCreated(saved.getId(), saved.getStatus()));
+        if (saved.getStatus() != BookingStatus.CANCELLED && saved.getService() != null) {
+            serviceRanking.bookingChanged(saved.getService().getId(), saved.getCreatedAt(), 1);
+        }
+        return saved;
     }
 
     // Get bookings by customer
@@ -39,10 +58,12 @@ public class BookingService {
     }
 
     // Update booking status
+    @Transactional
     public Booking updateBookingStatus(Long bookingId, BookingStatus status) {
         Booking booking = getBookingById(bookingId);
+        BookingStatus previous = booking.getStatus();
         booking.setStatus(status);
-        return bookingRepository.save(booking);
+        return saveStatusChange(booking, previous);
     }
 
     // Get all bookings
@@ -51,8 +72,10 @@ public class BookingService {
     }
 
     // Provider marks booking complete
+    @Transactional
     public Booking markCompleteByProvider(Long bookingId) {
         Booking booking = getBookingById(bookingId);
+        BookingStatus previous = booking.getStatus();
         booking.setProviderMarkedComplete(true);
 
         // If customer already verified, mark status COMPLETED
@@ -60,12 +83,14 @@ public class BookingService {
             booking.setStatus(BookingStatus.COMPLETED);
         }
 
-        return bookingRepository.save(booking);
+        return saveStatusChange(booking, previous);
     }
 
     // Customer verifies booking completion
+    @Transactional
     public Booking verifyByCustomer(Long bookingId) {
         Booking booking = getBookingById(bookingId);
+        BookingStatus previous = booking.getStatus();
         booking.setCustomerVerified(true);
 
         // Only mark COMPLETED if provider already marked complete
@@ -73,6 +98,25 @@ public class BookingService {
             booking.setStatus(BookingStatus.COMPLETED);
         }
 
-        return bookingRepository.save(booking);
+        return saveStatusChange(booking, previous);
+    }
+
+    // Saves the booking and moves it between status buckets (rollups, ranking)
+    private Booking saveStatusChange(Booking booking, BookingStatus previous) {
+        Booking saved = bookingRepository.save(booking);
+        BookingStatus status = saved.getStatus();
+        if (previous == status) return saved;
+
+        rollupService.removed(saved, previous);
+        rollupService.added(saved, status);
+        events.publishEvent(new DomainEvent.BookingStatusChanged(saved.getId(), previous, status));
+
+        // Cancelled bookings do not count towards the service ranking
+        boolean wasCounted = previous != BookingStatus.CANCELLED;
+        boolean isCounted = status != BookingStatus.CANCELLED;
+        if (wasCounted != isCounted) {
+            serviceRanking.bookingChanged(saved.getService().getId(), saved.getCreatedAt(), isCounted ? 1 : -1);
+        }
+        return saved;
     }
 }
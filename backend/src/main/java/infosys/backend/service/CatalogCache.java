@@ -0,0 +1,182 @@
+package infosys.backend.service;
+
+import infosys.backend.dto.ServiceResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of catalog snapshots in front of ServiceRepository:
+ * single services, per-provider lists and the full "all services" list.
+ * Cached values are shared between requests and must be treated as read-only.
+ *
+ * Every invalidation bumps a generation counter; a load that started before an
+ * invalidation is not stored, so a slow read can never resurrect stale data.
+ */
+@Component
+public class CatalogCache {
+
+    private record Entry<T>(T value, long expiresAt) {
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+
+    private final Map<Long, Entry<ServiceResponse>> byId = new ConcurrentHashMap<>();
+    private final Map<Long, Entry<List<ServiceResponse>>> byProvider = new ConcurrentHashMap<>();
+    private volatile Entry<List<ServiceResponse>> all;
+
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    private final CatalogInvalidationChannel channel;
+    private final int maxEntries;
+    private final long ttlMillis;
+
+    public CatalogCache(CatalogInvalidationChannel channel,
+                        @Value("${catalog.cache.max-entries:5000}") int maxEntries,
+                        @Value("${catalog.cache.ttl-seconds:60}") long ttlSeconds) {
+        this.channel = channel;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlSeconds * 1000;
+        channel.subscribe(this::apply);
+    }
+
+    // ---------------- reads ---------------- //
+
+    public List<ServiceResponse> getAll(Supplier<List<ServiceResponse>> loader) {
+        long now = System.currentTimeMillis();
+        Entry<List<ServiceResponse>> entry = all;
+        if (entry != null && !entry.isExpired(now)) {
+            hits.increment();
+            return entry.value();
+        }
+
+        misses.increment();
+        long gen = generation.get();
+        List<ServiceResponse> value = List.copyOf(loader.get());
+        if (generation.get() == gen) {
+            all = new Entry<>(value, now + ttlMillis);
+        }
+        return value;
+    }
+
+    public ServiceResponse getById(Long serviceId, Supplier<ServiceResponse> loader) {
+        return read(byId, serviceId, loader);
+    }
+
+    public List<ServiceResponse> getByProvider(Long providerId, Supplier<List<ServiceResponse>> loader) {
+        return read(byProvider, providerId, () -> List.copyOf(loader.get()));
+    }
+
+    private <T> T read(Map<Long, Entry<T>> map, Long key, Supplier<T> loader) {
+        long now = System.currentTimeMillis();
+        Entry<T> entry = map.get(key);
+        if (entry != null && !entry.isExpired(now)) {
+            hits.increment();
+            return entry.value();
+        }
+
+        misses.increment();
+        long gen = generation.get();
+        T value = loader.get();
+        if (generation.get() == gen) {
+            if (map.size() >= maxEntries) evict(map, now);
+            map.put(key, new Entry<>(value, now + ttlMillis));
+        }
+        return value;
+    }
+
+    // ---------------- invalidation ---------------- //
+
+    // ✅ A service was created, updated or deleted
+    public void invalidateService(Long serviceId, Long providerId) {
+        publish(new CatalogInvalidation(serviceId, providerId));
+    }
+
+    // ✅ Provider data shown in snapshots (e.g. name) changed
+    public void invalidateProvider(Long providerId) {
+        invalidateService(null, providerId);
+    }
+
+    public void invalidateAll() {
+        publish(CatalogInvalidation.all());
+    }
+
+    // Inside a transaction, wait for the commit so reloads cannot see pre-commit rows
+    private void publish(CatalogInvalidation invalidation) {
+        AfterCommit.run(() -> {
+            apply(invalidation);
+            channel.publish(invalidation);
+        });
+    }
+
+    // ✅ Run after every local or remote invalidation (e.g. to rebuild derived snapshots)
+    public void addInvalidationListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    // Applies local and remote invalidations
+    private void apply(CatalogInvalidation invalidation) {
+        generation.incrementAndGet();
+        invalidations.increment();
+        all = null;
+
+        Long serviceId = invalidation.serviceId();
+        Long providerId = invalidation.providerId();
+        if (serviceId == null && providerId == null) {
+            byId.clear();
+            byProvider.clear();
+        } else {
+            if (serviceId != null) {
+                byId.remove(serviceId);
+            }
+            if (providerId != null) {
+                byProvider.remove(providerId);
+                if (serviceId == null) {
+                    byId.values().removeIf(e -> providerId.equals(e.value().getProviderId()));
+                }
+            }
+        }
+
+        listeners.forEach(Runnable::run);
+    }
+
+    // Drop expired entries; if still full, drop arbitrary ones
+    private <T> void evict(Map<Long, Entry<T>> map, long now) {
+        map.values().removeIf(e -> e.isExpired(now));
+        Iterator<Long> it = map.keySet().iterator();
+        while (map.size() >= maxEntries && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    // ✅ Hit/miss counters for monitoring
+    public Map<String, Object> stats() {
+        long h = hits.sum();
+        long m = misses.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", h);
+        stats.put("misses", m);
+        stats.put("hitRatio", h + m == 0 ? 0.0 : (double) h / (h + m));
+        stats.put("invalidations", invalidations.sum());
+        stats.put("serviceEntries", byId.size());
+        stats.put("providerEntries", byProvider.size());
+        stats.put("allCached", all != null);
+        return stats;
+    }
+}
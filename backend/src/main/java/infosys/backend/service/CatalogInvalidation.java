@@ -0,0 +1,12 @@
+package infosys.backend.service;
+
+/**
+ * A catalog change that other nodes must apply to their {@link CatalogCache}.
+ * serviceId / providerId are null when the whole catalog is affected.
+ */
+public record CatalogInvalidation(Long serviceId, Long providerId) {
+
+    public static CatalogInvalidation all() {
+        return new CatalogInvalidation(null, null);
+    }
+}
@@ -0,0 +1,17 @@
+package infosys.backend.service;
+
+import java.util.function.Consumer;
+
+/**
+ * Transport for catalog invalidations between nodes behind the load balancer.
+ * The default {@link LocalCatalogInvalidationChannel} is in-process only;
+ * declare another bean of this type (e.g. Redis pub/sub) to fan out across nodes.
+ */
+public interface CatalogInvalidationChannel {
+
+    // Send a local change to the other nodes
+    void publish(CatalogInvalidation invalidation);
+
+    // Receive changes made on other nodes
+    void subscribe(Consumer<CatalogInvalidation> listener);
+}
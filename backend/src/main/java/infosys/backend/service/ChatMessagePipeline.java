@@ -0,0 +1,394 @@
+package infosys.backend.service;
+
+import infosys.backend.dto.ChatNotificationDTO;
+import infosys.backend.dto.MessageDTO;
+import infosys.backend.model.Message;
+import infosys.backend.service.ChatUserDirectory.ChatUser;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Group-commit storage and delivery for WebSocket chat messages.
+ *
+ * The STOMP handler only enqueues a message here. A single writer thread drains the bounded
+ * queue every few milliseconds and stores the batch in one transaction: JDBC batch inserts
+ * into message and chat_notifications plus the conversation summary upserts. Only after the
+ * commit are the messages (now with their ids) delivered to both users and the notifications
+ * pushed, so nobody ever sees a message that is not stored. Whether a message gets a
+ * notification is decided up front by NotificationDedupWindow.
+ *
+ * Failed batches are retried with backoff up to max-retries times and then split, so only
+ * the offending message is dropped; a full queue rejects the message up front. Either way
+ * the sender gets an event on /user/queue/message-errors instead of the echo, and the
+ * client can resend. At shutdown the writer keeps draining and retrying for the grace
+ * period before it gives up. One writer and a FIFO queue keep every conversation in send
+ * order, for storage and for delivery.
+ */
+@Component
+public class ChatMessagePipeline {
+
+    private static final String INSERT_MESSAGE =
+            "INSERT INTO message (sender_id, receiver_id, conversation_key, content, sent_at) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_NOTIFICATION =
+            "INSERT INTO chat_notifications (sender_id, receiver_id, message_content, sent_at, is_read, created_at) " +
+            "VALUES (?, ?, ?, ?, FALSE, ?)";
+    // chat_notifications.message_content is a VARCHAR(255)
+    private static final int NOTIFICATION_CONTENT_LENGTH = 255;
+    private static final long MAX_BACKOFF_MS = 5000;
+
+    private static final Logger log = LoggerFactory.getLogger(ChatMessagePipeline.class);
+
+    private record Pending(ChatUser sender, ChatUser receiver, String content, LocalDateTime sentAt,
+                           String clientMessageId, boolean notify) {}
+
+    // A stored notification waiting for its after-commit push
+    private record Outgoing(String receiverEmail, ChatNotificationDTO notification) {}
+
+    // A stored message waiting for its after-commit delivery to both users
+    private record Delivery(String senderEmail, String receiverEmail, MessageDTO message) {}
+
+    private record Stored(List<Delivery> messages, List<Outgoing> notifications) {}
+
+    @FunctionalInterface
+    private interface Binder {
+        void bind(PreparedStatement ps, Pending p) throws SQLException;
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ConversationService conversationService;
+    private final ChatNotificationService notificationService;
+    private final UnreadNotificationCounters unreadCounters;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    private final BlockingQueue<Pending> queue;
+    private final int maxBatch;
+    private final long flushIntervalNanos;
+    private final long offerTimeoutMs;
+    private final int maxRetries;
+    private final long shutdownGraceNanos;
+
+    private final LongAdder stored = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile boolean running = true;
+    private volatile long stopDeadline; // System.nanoTime() by which a stopping writer gives up
+    private Thread writer;
+
+    public ChatMessagePipeline(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               ConversationService conversationService,
+                               ChatNotificationService notificationService,
+                               UnreadNotificationCounters unreadCounters,
+                               SimpMessagingTemplate messagingTemplate,
+                               @Value("${chat.pipeline.queue-capacity:10000}") int queueCapacity,
+                               @Value("${chat.pipeline.max-batch:500}") int maxBatch,
+                               @Value("${chat.pipeline.flush-interval-ms:5}") long flushIntervalMs,
+                               @Value("${chat.pipeline.offer-timeout-ms:2000}") long offerTimeoutMs,
+                               @Value("${chat.pipeline.max-retries:5}") int maxRetries,
+                               @Value("${chat.pipeline.shutdown-grace-ms:10000}") long shutdownGraceMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.conversationService = conversationService;
+        this.notificationService = notificationService;
+        this.unreadCounters = unreadCounters;
+        this.messagingTemplate = messagingTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatch = maxBatch;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.maxRetries = maxRetries;
+        this.shutdownGraceNanos = TimeUnit.MILLISECONDS.toNanos(shutdownGraceMs);
+    }
+
+    @PostConstruct
+    void start() {
+        writer = new Thread(this::runWriter, "chat-message-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // ✅ Hand a message over for storage and delivery; false when the queue stayed full or the
+    //    pipeline is stopping (caller should call reportFailure). notify = false stores the message
+    //    without a chat notification (duplicate within the dedup window).
+    public boolean submit(ChatUser sender, ChatUser receiver, String content, LocalDateTime sentAt,
+                          String clientMessageId, boolean notify) {
+        if (!running) {
+            rejected.increment();
+            return false;
+        }
+        try {
+            if (queue.offer(new Pending(sender, receiver, content, sentAt, clientMessageId, notify),
+                    offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejected.increment();
+        return false;
+    }
+
+    // ✅ Tell the sender a message was not stored (clients match it by client id or sentAt)
+    public void reportFailure(ChatUser sender, Long receiverId, LocalDateTime sentAt,
+                              String clientMessageId, String reason) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("receiverId", receiverId);
+        event.put("sentAt", sentAt);
+        event.put("clientMessageId", clientMessageId);
+        event.put("reason", reason);
+        try {
+            messagingTemplate.convertAndSendToUser(sender.email().toLowerCase(), "/queue/message-errors", event);
+        } catch (RuntimeException e) {
+            log.warn("Message failure event for user {} could not be sent: {}", sender.id(), e.getMessage());
+        }
+    }
+
+    // ---------------- writer thread ---------------- //
+
+    private void runWriter() {
+        List<Pending> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(running ? 500 : 0, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+
+                // Collect whatever else arrives within the flush interval
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < maxBatch) {
+                    queue.drainTo(batch, maxBatch - batch.size());
+                    long wait = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatch || wait <= 0) break;
+                    Pending next = queue.poll(wait, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                stop(); // store what is queued, then exit
+            }
+
+            if (!batch.isEmpty()) {
+                flush(batch, maxRetries);
+                batch.clear();
+            }
+        }
+    }
+
+    // Retry failures with backoff; a batch that still fails (or is rejected for its content) is
+    // split until the offending message is found and dropped. Halves of a batch that exhausted
+    // its retries are not retried again, so an outage costs at most 2n - 1 further attempts.
+    // While stopping, retries go on until the grace period is over.
+    private void flush(List<Pending> batch, int retries) {
+        long backoff = 50;
+        for (int attempt = 0; ; attempt++) {
+            try {
+                Stored result = transactionTemplate.execute(status -> persist(batch));
+                stored.add(batch.size());
+                publish(result);
+                return;
+            } catch (NonTransientDataAccessException e) {
+                splitOrDrop(batch, e, retries);
+                return;
+            } catch (RuntimeException e) {
+                if (pastGracePeriod()) {
+                    log.error("Chat batch of {} not stored within the shutdown grace period", batch.size(), e);
+                    batch.forEach(p -> drop(p, "shutdown"));
+                    return;
+                }
+                if (attempt >= retries) {
+                    splitOrDrop(batch, e, 0);
+                    return;
+                }
+                long sleep = running ? backoff
+                        : Math.max(0, Math.min(backoff, TimeUnit.NANOSECONDS.toMillis(stopDeadline - System.nanoTime())));
+                log.warn("Chat batch of {} failed, retrying in {} ms: {}", batch.size(), sleep, e.getMessage());
+                try {
+                    Thread.sleep(sleep);
+                } catch (InterruptedException ie) {
+                    stop();
+                }
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MS);
+            }
+        }
+    }
+
+    private void splitOrDrop(List<Pending> batch, RuntimeException e, int retries) {
+        if (batch.size() == 1) {
+            log.error("Dropping chat message from user {}", batch.get(0).sender().id(), e);
+            drop(batch.get(0), "not stored");
+            return;
+        }
+        int half = batch.size() / 2;
+        flush(new ArrayList<>(batch.subList(0, half)), retries);
+        flush(new ArrayList<>(batch.subList(half, batch.size())), retries);
+    }
+
+    private void stop() {
+        if (running) {
+            stopDeadline = System.nanoTime() + shutdownGraceNanos;
+            running = false;
+        }
+    }
+
+    private boolean pastGracePeriod() {
+        return !running && System.nanoTime() - stopDeadline >= 0;
+    }
+
+    private void drop(Pending p, String reason) {
+        dropped.increment();
+        reportFailure(p.sender(), p.receiver().id(), p.sentAt(), p.clientMessageId(), reason);
+    }
+
+    // Runs inside the batch transaction
+    private Stored persist(List<Pending> batch) {
+        long[] messageIds = insertAll(INSERT_MESSAGE, batch, (ps, p) -> {
+            ps.setLong(1, p.sender().id());
+            ps.setLong(2, p.receiver().id());
+            ps.setString(3, Message.conversationKey(p.sender().id(), p.receiver().id()));
+            ps.setString(4, p.content());
+            ps.setObject(5, p.sentAt());
+        });
+
+        List<Pending> notified = batch.stream().filter(Pending::notify).toList();
+        LocalDateTime createdAt = LocalDateTime.now();
+        long[] notificationIds = notified.isEmpty() ? new long[0] : insertAll(INSERT_NOTIFICATION, notified, (ps, p) -> {
+            ps.setLong(1, p.sender().id());
+            ps.setLong(2, p.receiver().id());
+            ps.setString(3, truncate(p.content()));
+            ps.setObject(4, p.sentAt());
+            ps.setObject(5, createdAt);
+        });
+
+        List<ConversationService.StoredMessage> messages = new ArrayList<>(batch.size());
+        List<Delivery> deliveries = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Pending p = batch.get(i);
+            messages.add(new ConversationService.StoredMessage(messageIds[i], p.sender().id(), p.receiver().id(),
+                    p.content(), p.sentAt()));
+            deliveries.add(new Delivery(p.sender().email(), p.receiver().email(), new MessageDTO(messageIds[i],
+                    p.sender().id(), p.sender().name(), p.receiver().id(), p.receiver().name(), p.content(), p.sentAt())));
+        }
+        conversationService.recordAll(messages);
+
+        List<Outgoing> notifications = new ArrayList<>(notified.size());
+        for (int i = 0; i < notified.size(); i++) {
+            Pending p = notified.get(i);
+            notifications.add(new Outgoing(p.receiver().email(), ChatNotificationDTO.builder()
+                    .id(notificationIds[i])
+                    .senderId(p.sender().id())
+                    .senderName(p.sender().name())
+                    .receiverId(p.receiver().id())
+                    .receiverName(p.receiver().name())
+                    .messageContent(truncate(p.content()))
+                    .sentAt(p.sentAt())
+                    .isRead(false)
+                    .createdAt(createdAt)
+                    .collapsedCount(1)
+                    .build()));
+        }
+        return new Stored(deliveries, notifications);
+    }
+
+    // One JDBC batch; returns the generated ids in insert order
+    private long[] insertAll(String sql, List<Pending> batch, Binder binder) {
+        return jdbcTemplate.execute((ConnectionCallback<long[]>) con -> {
+            try (PreparedStatement ps = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                for (Pending p : batch) {
+                    binder.bind(ps, p);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                long[] ids = new long[batch.size()];
+                int n = 0;
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    while (n < ids.length && keys.next()) ids[n++] = keys.getLong(1);
+                }
+                if (n != ids.length) {
+                    throw new SQLException("Expected " + ids.length + " generated keys, got " + n);
+                }
+                return ids;
+            }
+        });
+    }
+
+    // After commit, in send order: each message to both users, then one unread-count update
+    // per receiver and one push per stored notification
+    private void publish(Stored result) {
+        for (Delivery d : result.messages()) {
+            try {
+                messagingTemplate.convertAndSendToUser(d.receiverEmail().toLowerCase(), "/queue/messages", d.message());
+                messagingTemplate.convertAndSendToUser(d.senderEmail().toLowerCase(), "/queue/messages", d.message());
+            } catch (RuntimeException e) {
+                log.warn("Message delivery failed: {}", e.getMessage()); // stored; clients reload the conversation
+            }
+        }
+
+        List<Outgoing> notifications = result.notifications();
+        Map<Long, Integer> perReceiver = new LinkedHashMap<>();
+        Map<Long, String> emails = new HashMap<>();
+        for (Outgoing n : notifications) {
+            perReceiver.merge(n.notification().getReceiverId(), 1, Integer::sum);
+            emails.put(n.notification().getReceiverId(), n.receiverEmail());
+        }
+        perReceiver.forEach((receiverId, count) -> unreadCounters.add(receiverId, emails.get(receiverId), count));
+
+        for (Outgoing n : notifications) {
+            try {
+                notificationService.push(n.notification(), n.receiverEmail());
+            } catch (RuntimeException e) {
+                log.warn("Notification push failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static String truncate(String content) {
+        if (content == null || content.length() <= NOTIFICATION_CONTENT_LENGTH) return content;
+        int end = content.offsetByCodePoints(0, content.codePointCount(0, NOTIFICATION_CONTENT_LENGTH));
+        return content.substring(0, end);
+    }
+
+    // ✅ Queue depth and counters for monitoring
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queued", queue.size());
+        stats.put("stored", stored.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("dropped", dropped.sum());
+        return stats;
+    }
+
+    // Stop taking messages, then give the writer the grace period to store (and retry) the rest
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        stop();
+        writer.join(TimeUnit.NANOSECONDS.toMillis(shutdownGraceNanos) + 1000);
+    }
+}
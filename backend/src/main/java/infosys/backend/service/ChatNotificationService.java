@@ -1,16 +1,21 @@
 package infosys.backend.service;
 
 import infosys.backend.dto.ChatNotificationDTO;
+import infosys.backend.dto.NotificationPageResponse;
 import infosys.backend.model.ChatNotification;
 import infosys.backend.model.User;
 import infosys.backend.repository.ChatNotificationRepository;
 import infosys.backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -18,46 +23,18 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ChatNotificationService {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final ChatNotificationRepository notificationRepository;
     private final UserRepository userRepository;
     private final SimpMessagingTemplate messagingTemplate;
+    private final ConversationService conversationService;
+    private final UnreadNotificationCounters unreadCounters;
 
-    @Transactional
-    public ChatNotification createNotification(User sender, User receiver, String messageContent, LocalDateTime sentAt) {
-        // Check for duplicate notification within 5 seconds window
-        LocalDateTime startTime = sentAt.minusSeconds(5);
-        LocalDateTime endTime = sentAt.plusSeconds(5);
-        
-        var existingNotification = notificationRepository.findDuplicate(
-            sender, receiver, messageContent, startTime, endTime
-        );
-        
-        if (existingNotification.isPresent()) {
-            System.out.println("⚠ Duplicate notification detected, skipping creation");
-            return existingNotification.get();
-        }
-        
-        ChatNotification notification = ChatNotification.builder()
-                .sender(sender)
-                .receiver(receiver)
-                .messageContent(messageContent)
-                .sentAt(sentAt)
-                .isRead(false)
-                .build();
-
-        ChatNotification saved = notificationRepository.save(notification);
-        
-        // Send real-time notification via WebSocket
-        ChatNotificationDTO dto = convertToDTO(saved);
-        messagingTemplate.convertAndSendToUser(
-            receiver.getEmail().toLowerCase(),
-            "/queue/notifications",
-            dto
-        );
-        
-        System.out.println("🔔 Notification sent to " + receiver.getEmail() + " from " + sender.getName());
-        
-        return saved;
+    // ✅ Real-time push of a stored notification (also used by ChatMessagePipeline)
+    public void push(ChatNotificationDTO dto, String receiverEmail) {
+        messagingTemplate.convertAndSendToUser(receiverEmail.toLowerCase(), "/queue/notifications", dto);
     }
 
     public List<ChatNotificationDTO> getUnreadNotifications(User receiver) {
@@ -68,16 +45,44 @@ public class ChatNotificationService {
                 .collect(Collectors.toList());
     }
 
-    public List<ChatNotificationDTO> getAllNotifications(User receiver) {
-        List<ChatNotification> notifications = notificationRepository
-                .findByReceiverOrderBySentAtDesc(receiver);
-        return notifications.stream()
+    // ✅ One page of all notifications, newest first, plus a cursor for older ones
+    public NotificationPageResponse getNotificationPage(User receiver, String before, Integer limit) {
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        // Cursor = "<sentAt>|<id>" of the oldest notification already shown
+        LocalDateTime beforeSentAt = null;
+        Long beforeId = null;
+        if (before != null && !before.isBlank()) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(before), StandardCharsets.UTF_8).split("\\|");
+                beforeSentAt = LocalDateTime.parse(parts[0]);
+                beforeId = Long.parseLong(parts[1]);
+            } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        // Fetch one extra row to know whether older notifications exist
+        List<ChatNotification> rows = notificationRepository.findPage(
+                receiver.getId(), beforeSentAt, beforeId, PageRequest.of(0, size + 1));
+
+        boolean hasMore = rows.size() > size;
+        List<ChatNotificationDTO> items = (hasMore ? rows.subList(0, size) : rows).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
+
+        String nextBefore = null;
+        if (hasMore) {
+            ChatNotificationDTO oldest = items.get(items.size() - 1);
+            nextBefore = Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((oldest.getSentAt() + "|" + oldest.getId()).getBytes(StandardCharsets.UTF_8));
+        }
+        return new NotificationPageResponse(items, nextBefore);
     }
 
+    // ✅ In-memory counter (loaded from the table on first access)
     public long getUnreadCount(User receiver) {
-        return notificationRepository.countByReceiverAndIsReadFalse(receiver);
+        return unreadCounters.get(receiver);
     }
 
     @Transactional
@@ -89,32 +94,34 @@ public class ChatNotificationService {
             throw new RuntimeException("Unauthorized to mark this notification as read");
         }
         
+        if (!Boolean.TRUE.equals(notification.getIsRead())) {
+            conversationService.markOneRead(receiver.getId(), notification.getSender().getId(),
+                    notification.getCollapsedCount() == null ? 1 : notification.getCollapsedCount());
+            AfterCommit.run(() -> unreadCounters.add(receiver.getId(), receiver.getEmail(), -1));
+        }
         notification.setIsRead(true);
         notificationRepository.save(notification);
     }
 
+    // ✅ Bulk UPDATE, no entities loaded; returns how many notifications were unread
     @Transactional
-    public void markAllAsRead(User receiver) {
-        List<ChatNotification> unreadNotifications = notificationRepository
-                .findByReceiverAndIsReadFalseOrderBySentAtDesc(receiver);
-        
-        unreadNotifications.forEach(notification -> notification.setIsRead(true));
-        notificationRepository.saveAll(unreadNotifications);
+    public int markAllAsRead(User receiver) {
+        int updated = notificationRepository.markAllRead(receiver.getId());
+        conversationService.markAllRead(receiver.getId());
+        AfterCommit.run(() -> unreadCounters.reset(receiver.getId(), receiver.getEmail()));
+        return updated;
     }
 
     @Transactional
-    public void markAllFromSenderAsRead(User receiver, Long senderId) {
-        User sender = userRepository.findById(senderId)
-                .orElseThrow(() -> new RuntimeException("Sender not found"));
-        
-        List<ChatNotification> notifications = notificationRepository
-                .findByReceiverAndSenderOrderBySentAtDesc(receiver, sender);
-        
-        notifications.stream()
-                .filter(n -> !n.getIsRead())
-                .forEach(n -> n.setIsRead(true));
-        
-        notificationRepository.saveAll(notifications);
+    public int markAllFromSenderAsRead(User receiver, Long senderId) {
+        if (!userRepository.existsById(senderId)) {
+            throw new RuntimeException("Sender not found");
+        }
+
+        int updated = notificationRepository.markAllReadFromSender(receiver.getId(), senderId);
+        conversationService.markConversationRead(receiver.getId(), senderId);
+        AfterCommit.run(() -> unreadCounters.add(receiver.getId(), receiver.getEmail(), -updated));
+        return updated;
     }
 
     private ChatNotificationDTO convertToDTO(ChatNotification notification) {
@@ -128,6 +135,7 @@ public class ChatNotificationService {
                 .sentAt(notification.getSentAt())
                 .isRead(notification.getIsRead())
                 .createdAt(notification.getCreatedAt())
+                .collapsedCount(notification.getCollapsedCount() == null ? 1 : notification.getCollapsedCount())
                 .build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,66 @@
+package infosys.backend.service;
+
+import infosys.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Id → (name, email) of chat participants, so routing a WebSocket message does not
+ * need a user lookup per message. Entries expire after a TTL and are dropped when
+ * the user is updated or deleted.
+ */
+@Component
+public class ChatUserDirectory {
+
+    public record ChatUser(Long id, String name, String email) {}
+
+    private record Entry(ChatUser user, long expiresAt) {}
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    private final UserRepository userRepository;
+    private final int maxEntries;
+    private final long ttlMillis;
+
+    public ChatUserDirectory(UserRepository userRepository,
+                             @Value("${chat.directory.max-entries:10000}") int maxEntries,
+                             @Value("${chat.directory.ttl-seconds:300}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    // ✅ Cached participant, or null if the user does not exist
+    public ChatUser find(Long userId) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(userId);
+        if (entry != null && now < entry.expiresAt()) return entry.user();
+
+        ChatUser user = userRepository.findById(userId)
+                .map(u -> new ChatUser(u.getId(), u.getName(), u.getEmail()))
+                .orElse(null);
+        if (user != null) {
+            if (entries.size() >= maxEntries) evict(now);
+            entries.put(userId, new Entry(user, now + ttlMillis));
+        }
+        return user;
+    }
+
+    public void invalidate(Long userId) {
+        if (userId != null) entries.remove(userId);
+    }
+
+    // Drop expired entries; if still full, drop arbitrary ones
+    private void evict(long now) {
+        entries.values().removeIf(e -> now >= e.expiresAt());
+        Iterator<Long> it = entries.keySet().iterator();
+        while (entries.size() >= maxEntries && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package infosys.backend.service;
+
+import infosys.backend.dto.ConversationSummaryDTO;
+import infosys.backend.model.Message;
+import infosys.backend.repository.ConversationSummaryRepository;
+import infosys.backend.repository.MessageRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inbox view: one conversation_summaries row per (owner, partner), written with two
+ * upserts per message, so listing conversations is a single indexed query.
+ */
+@Service
+@RequiredArgsConstructor
+public class ConversationService {
+
+    private static final Logger log = LoggerFactory.getLogger(ConversationService.class);
+
+    private static final int PREVIEW_LENGTH = 200;
+    private static final int DEFAULT_INBOX_SIZE = 50;
+    private static final int MAX_INBOX_SIZE = 200;
+
+    private final ConversationSummaryRepository summaryRepository;
+    private final MessageRepository messageRepository;
+
+    // A stored message as far as the inbox is concerned
+    public record StoredMessage(Long id, Long senderId, Long receiverId, String content, LocalDateTime sentAt) {}
+
+    // Both rows of one participant pair, coalesced over a batch
+    private static final class PendingRow {
+        StoredMessage last;
+        int unread;
+    }
+
+    // ✅ Called for every stored message (same transaction)
+    public void recordMessage(Message message) {
+        recordAll(List.of(new StoredMessage(message.getId(), message.getSender().getId(),
+                message.getReceiver().getId(), message.getContent(), message.getSentAt())));
+    }
+
+    // ✅ Batch variant: one upsert per (owner, partner) row however many messages it received
+    public void recordAll(List<StoredMessage> messages) {
+        Map<List<Long>, PendingRow> rows = new LinkedHashMap<>();
+        for (StoredMessage m : messages) {
+            apply(rows, m.senderId(), m.receiverId(), m, 0);
+            if (!m.senderId().equals(m.receiverId())) {
+                apply(rows, m.receiverId(), m.senderId(), m, 1);
+            }
+        }
+
+        rows.forEach((key, row) -> summaryRepository.upsert(key.get(0), key.get(1), row.last.id(),
+                row.last.senderId(), preview(row.last.content()), row.last.sentAt(), row.unread));
+    }
+
+    private static void apply(Map<List<Long>, PendingRow> rows, Long ownerId, Long otherId, StoredMessage m, int unread) {
+        PendingRow row = rows.computeIfAbsent(List.of(ownerId, otherId), k -> new PendingRow());
+        if (row.last == null || m.id() > row.last.id()) row.last = m;
+        row.unread += unread;
+    }
+
+    public List<ConversationSummaryDTO> getInbox(Long ownerId, Integer limit) {
+        int size = limit == null ? DEFAULT_INBOX_SIZE : Math.max(1, Math.min(limit, MAX_INBOX_SIZE));
+        return summaryRepository.findInbox(ownerId, PageRequest.of(0, size));
+    }
+
+    // ---------------- read state ---------------- //
+
+    public void markConversationRead(Long ownerId, Long otherUserId) {
+        summaryRepository.clearUnread(ownerId, otherUserId);
+    }
+
+    public void markAllRead(Long ownerId) {
+        summaryRepository.clearAllUnread(ownerId);
+    }
+
+    // messages = how many messages the notification stood for (> 1 for a collapsed burst)
+    public void markOneRead(Long ownerId, Long otherUserId, int messages) {
+        summaryRepository.decrementUnread(ownerId, otherUserId, messages);
+    }
+
+    // ---------------- backfill ---------------- //
+
+    // ✅ First start with the summary table: build it from the stored messages
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (summaryRepository.count() == 0 && messageRepository.count() > 0) {
+            int rows = summaryRepository.rebuildFromMessages();
+            log.info("Conversation summaries built: {}", rows);
+        }
+    }
+
+    // Cut on a code point boundary so a surrogate pair is never split
+    private static String preview(String content) {
+        if (content == null || content.length() <= PREVIEW_LENGTH) return content;
+        int end = content.offsetByCodePoints(0, content.codePointCount(0, PREVIEW_LENGTH));
+        return content.substring(0, end);
+    }
+}
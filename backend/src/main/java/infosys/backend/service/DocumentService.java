@@ -4,6 +4,7 @@ import infosys.backend.model.Document;
 import infosys.backend.model.User;
 import infosys.backend.repository.DocumentRepository;
 import infosys.backend.repository.UserRepository;
+import infosys.backend.security.JwtTokenCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -22,6 +23,7 @@ public class DocumentService {
 
     private final DocumentRepository documentRepository;
     private final UserRepository userRepository;
+    private final JwtTokenCache tokenCache;
 
     private final String uploadDir = "uploads/";
 
@@ -69,6 +71,7 @@ document.setUploadedAt(LocalDateTime.now());
         User provider = doc.getProvider();
         provider.setVerified(true);
         userRepository.save(provider);
+        tokenCache.invalidateUser(provider.getId());
 
         return doc;
     }
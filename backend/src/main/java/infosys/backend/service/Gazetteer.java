@@ -0,0 +1,81 @@
+package infosys.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Offline place-name → coordinates lookup backed by a CSV file (name,latitude,longitude).
+ * No external geocoder is called.
+ */
+@Component
+public class Gazetteer {
+
+    private static final Logger log = LoggerFactory.getLogger(Gazetteer.class);
+
+    public record GeoPoint(double latitude, double longitude) {}
+
+    private final Map<String, GeoPoint> places = new HashMap<>();
+    private final List<String> namesLongestFirst;
+
+    public Gazetteer(ResourceLoader resourceLoader,
+                     @Value("${geo.gazetteer:classpath:gazetteer.csv}") String location) {
+        Resource resource = resourceLoader.getResource(location);
+        if (resource.exists()) {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (line.isEmpty() || line.startsWith("#")) continue;
+                    String[] parts = line.split(",");
+                    if (parts.length != 3) continue;
+                    places.put(normalize(parts[0]),
+                            new GeoPoint(Double.parseDouble(parts[1]), Double.parseDouble(parts[2])));
+                }
+            } catch (IOException | NumberFormatException e) {
+                log.error("Failed to load gazetteer {}: {}", location, e.getMessage());
+            }
+        }
+        namesLongestFirst = places.keySet().stream()
+                .sorted(Comparator.comparingInt(String::length).reversed())
+                .toList();
+        log.info("Gazetteer loaded: {} places", places.size());
+    }
+
+    // ✅ Resolve a free-text location like "Koramangala, Bengaluru, Karnataka"
+    public Optional<GeoPoint> lookup(String location) {
+        if (location == null || location.isBlank()) return Optional.empty();
+
+        // 1) Exact match on a comma-separated part, most specific part first
+        for (String part : location.split(",")) {
+            GeoPoint point = places.get(normalize(part));
+            if (point != null) return Optional.of(point);
+        }
+
+        // 2) Known place name appearing as whole words anywhere in the text
+        String text = " " + normalize(location).replaceAll("[^\\p{L}\\p{N}]+", " ") + " ";
+        for (String name : namesLongestFirst) {
+            if (text.contains(" " + name + " ")) return Optional.of(places.get(name));
+        }
+        return Optional.empty();
+    }
+
+    private static String normalize(String s) {
+        return s.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,17 @@
+package infosys.backend.service;
+
+import java.util.function.Consumer;
+
+// Single-node default: there is nobody else to notify
+public class LocalCatalogInvalidationChannel implements CatalogInvalidationChannel {
+
+    @Override
+    public void publish(CatalogInvalidation invalidation) {
+        // no other nodes
+    }
+
+    @Override
+    public void subscribe(Consumer<CatalogInvalidation> listener) {
+        // no remote events
+    }
+}
@@ -1,32 +1,90 @@
 package infosys.backend.service;
 
+import infosys.backend.dto.MessageDTO;
+import infosys.backend.dto.MessagePageResponse;
 import infosys.backend.model.Message;
-import infosys.backend.model.User;
 import infosys.backend.repository.MessageRepository;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class MessageService {
 
+    private static final Logger log = LoggerFactory.getLogger(MessageService.class);
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final MessageRepository messageRepository;
+    private final ConversationService conversationService;
 
-    // Save a message
+    // Save a message and refresh both participants' inbox rows
+    @Transactional
     public Message saveMessage(Message message) {
         message.setSentAt(LocalDateTime.now());
-        return messageRepository.save(message);
+        Message saved = messageRepository.save(message);
+        conversationService.recordMessage(saved);
+        return saved;
     }
 
-    // Get chat history between two users
-    // Replace the existing method
-public List<Message> getMessagesBetweenUsers(User user1, User user2) {
-    return messageRepository.findMessagesBetweenUsersWithUsers(user1, user2);
-}
+    // ✅ Latest messages between two users, oldest first, plus a cursor for older ones
+    public MessagePageResponse getConversationPage(Long userId, Long otherUserId, String before, Integer limit) {
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        // Cursor = "<sentAt>|<id>" of the oldest message already shown
+        LocalDateTime beforeSentAt = null;
+        Long beforeId = null;
+        if (before != null && !before.isBlank()) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(before), StandardCharsets.UTF_8).split("\\|");
+                beforeSentAt = LocalDateTime.parse(parts[0]);
+                beforeId = Long.parseLong(parts[1]);
+            } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        // Fetch one extra row to know whether older messages exist
+        List<MessageDTO> rows = messageRepository.findConversationPage(
+                Message.conversationKey(userId, otherUserId), beforeSentAt, beforeId, PageRequest.of(0, size + 1));
 
+        boolean hasMore = rows.size() > size;
+        List<MessageDTO> items = new ArrayList<>(hasMore ? rows.subList(0, size) : rows);
+        Collections.reverse(items);
+
+        String nextBefore = null;
+        if (hasMore) {
+            MessageDTO oldest = items.get(0);
+            nextBefore = Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((oldest.getSentAt() + "|" + oldest.getId()).getBytes(StandardCharsets.UTF_8));
+        }
+        return new MessagePageResponse(items, nextBefore);
+    }
+
+    // ✅ Messages stored before conversation_key existed get their key once
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillConversationKeys() {
+        int updated = messageRepository.backfillConversationKeys();
+        if (updated > 0) {
+            log.info("Conversation keys backfilled for {} messages", updated);
+        }
+    }
 
     // Optional: get all messages
     public List<Message> getAllMessages() {
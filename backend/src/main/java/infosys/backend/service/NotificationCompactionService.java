@@ -0,0 +1,108 @@
+package infosys.backend.service;
+
+import infosys.backend.repository.ChatNotificationRepository;
+import infosys.backend.repository.ChatNotificationRepository.Burst;
+import infosys.backend.service.ChatUserDirectory.ChatUser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Keeps chat_notifications bounded.
+ *
+ * Retention: read notifications older than retention-days are deleted in batches of
+ * batch-size rows, one short transaction per batch, at most max-batches per run.
+ * Bursts: when a sender left a receiver at least min-burst unread notifications that are
+ * older than collapse-after-minutes, the newest one is kept with collapsed_count = the
+ * number of messages it now stands for, and the older ones are deleted. Each burst is
+ * re-counted and locked in its own transaction, and skipped if the kept row was read
+ * since the burst was found.
+ */
+@Service
+public class NotificationCompactionService {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationCompactionService.class);
+
+    private final ChatNotificationRepository notificationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final UnreadNotificationCounters unreadCounters;
+    private final ChatUserDirectory chatUserDirectory;
+
+    private final long retentionDays;
+    private final int batchSize;
+    private final int maxBatches;
+    private final long collapseAfterMinutes;
+    private final int minBurst;
+
+    public NotificationCompactionService(ChatNotificationRepository notificationRepository,
+                                         PlatformTransactionManager transactionManager,
+                                         UnreadNotificationCounters unreadCounters,
+                                         ChatUserDirectory chatUserDirectory,
+                                         @Value("${chat.notifications.compaction.retention-days:30}") long retentionDays,
+                                         @Value("${chat.notifications.compaction.batch-size:1000}") int batchSize,
+                                         @Value("${chat.notifications.compaction.max-batches:100}") int maxBatches,
+                                         @Value("${chat.notifications.compaction.collapse-after-minutes:60}") long collapseAfterMinutes,
+                                         @Value("${chat.notifications.compaction.min-burst:3}") int minBurst) {
+        this.notificationRepository = notificationRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.unreadCounters = unreadCounters;
+        this.chatUserDirectory = chatUserDirectory;
+        this.retentionDays = retentionDays;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.collapseAfterMinutes = collapseAfterMinutes;
+        this.minBurst = minBurst;
+    }
+
+    @Scheduled(cron = "${chat.notifications.compaction.cron:0 0 4 * * *}")
+    public void compact() {
+        int purged = purgeRead();
+        int collapsed = collapseBursts();
+        log.info("Notification compaction: {} read deleted, {} collapsed into burst rows", purged, collapsed);
+    }
+
+    // ✅ Delete old read notifications; a run is capped at maxBatches × batchSize rows
+    public int purgeRead() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        int total = 0;
+        for (int i = 0; i < maxBatches; i++) {
+            int deleted = notificationRepository.deleteReadBefore(cutoff, batchSize);
+            total += deleted;
+            if (deleted < batchSize) break;
+        }
+        return total;
+    }
+
+    // ✅ Collapse unread bursts (at most batchSize sender/receiver pairs per run)
+    public int collapseBursts() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(collapseAfterMinutes);
+        List<Burst> bursts = notificationRepository.findBursts(cutoff, minBurst, batchSize);
+
+        int total = 0;
+        for (Burst burst : bursts) {
+            Integer deleted = transactionTemplate.execute(status -> {
+                long absorbed = notificationRepository.lockCollapsible(
+                        burst.getReceiverId(), burst.getSenderId(), cutoff, burst.getKeepId());
+                if (absorbed == 0) return 0;
+                if (notificationRepository.absorbIntoUnread(burst.getKeepId(), absorbed) == 0) {
+                    return 0; // kept row was read meanwhile; the burst is looked at again next run
+                }
+                return notificationRepository.deleteCollapsed(
+                        burst.getReceiverId(), burst.getSenderId(), cutoff, burst.getKeepId());
+            });
+            if (deleted == null || deleted == 0) continue;
+
+            total += deleted;
+            ChatUser receiver = chatUserDirectory.find(burst.getReceiverId());
+            unreadCounters.add(burst.getReceiverId(), receiver == null ? null : receiver.email(), -deleted);
+        }
+        return total;
+    }
+}
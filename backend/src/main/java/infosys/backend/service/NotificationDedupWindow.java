@@ -0,0 +1,100 @@
+package infosys.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Idempotency window for chat notifications, replacing the duplicate-check query.
+ *
+ * Keys are (sender, receiver, 64-bit content hash), or (sender, receiver, client message id)
+ * when the client sends one. Time is cut into buckets of one window; a key counts as a
+ * duplicate while it is in the current or the previous bucket, i.e. for one to two windows.
+ * Each bucket holds at most maxEntries keys; past that, new keys are let through unrecorded.
+ */
+@Component
+public class NotificationDedupWindow {
+
+    private record Key(long senderId, long receiverId, long hash, boolean clientId) {}
+
+    private record Bucket(long index, Set<Key> keys) {}
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final long windowMillis;
+    private final int maxEntries;
+
+    private volatile Bucket current = new Bucket(-1, Set.of());
+    private volatile Bucket previous = new Bucket(-1, Set.of());
+
+    private final LongAdder duplicates = new LongAdder();
+
+    public NotificationDedupWindow(@Value("${chat.notifications.dedup-window-seconds:5}") long windowSeconds,
+                                   @Value("${chat.notifications.dedup-max-entries:100000}") int maxEntries) {
+        this.windowMillis = windowSeconds * 1000;
+        this.maxEntries = maxEntries;
+    }
+
+    // ✅ true the first time a notification is seen within the window, false for a duplicate
+    public boolean firstSeen(Long senderId, Long receiverId, String content, String clientMessageId) {
+        Key key = key(senderId, receiverId, content, clientMessageId);
+
+        long index = System.currentTimeMillis() / windowMillis;
+        Bucket bucket = current;
+        if (bucket.index() != index) bucket = rotate(index);
+
+        Bucket before = previous;
+        if (before.index() == index - 1 && before.keys().contains(key)) {
+            duplicates.increment();
+            return false;
+        }
+        if (bucket.keys().size() >= maxEntries) return true;
+        if (!bucket.keys().add(key)) {
+            duplicates.increment();
+            return false;
+        }
+        return true;
+    }
+
+    // ✅ Undo a firstSeen() == true whose message was then rejected, so a resend is not a duplicate
+    public void forget(Long senderId, Long receiverId, String content, String clientMessageId) {
+        Key key = key(senderId, receiverId, content, clientMessageId);
+        for (Bucket bucket : new Bucket[] {current, previous}) {
+            if (bucket.index() >= 0) bucket.keys().remove(key); // index -1 buckets are immutable
+        }
+    }
+
+    public long duplicates() {
+        return duplicates.sum();
+    }
+
+    private synchronized Bucket rotate(long index) {
+        Bucket bucket = current;
+        if (bucket.index() < index) {
+            previous = bucket.index() == index - 1 ? bucket : new Bucket(-1, Set.of());
+            bucket = new Bucket(index, ConcurrentHashMap.newKeySet());
+            current = bucket;
+        }
+        return bucket;
+    }
+
+    private static Key key(Long senderId, Long receiverId, String content, String clientMessageId) {
+        boolean byClientId = clientMessageId != null && !clientMessageId.isBlank();
+        return new Key(senderId, receiverId, hash(byClientId ? clientMessageId : content), byClientId);
+    }
+
+    // 64-bit FNV-1a over the UTF-16 chars; collisions only matter within one window
+    private static long hash(String text) {
+        long h = FNV_OFFSET;
+        if (text == null) return h;
+        for (int i = 0; i < text.length(); i++) {
+            h ^= text.charAt(i);
+            h *= FNV_PRIME;
+        }
+        return h;
+    }
+}
@@ -0,0 +1,240 @@
+package infosys.backend.service;
+
+import infosys.backend.dto.RatingStatsResponse;
+import infosys.backend.repository.ReviewRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * In-memory 1-5 star histograms per provider and per service, kept current by ReviewService
+ * writes and rebuilt from the reviews table with one GROUP BY (startup and nightly reconcile).
+ *
+ * Each entity has five LongAdder counters, so concurrent reviews never contend on one cell.
+ * Scores use a Bayesian average: (priorWeight * globalMean + sum) / (priorWeight + count),
+ * which keeps an entity with two 5-star reviews from outranking one with hundreds of 4.8s.
+ */
+@Component
+public class RatingStats {
+
+    private static final class Histogram {
+        final LongAdder[] stars = new LongAdder[5];
+
+        Histogram() {
+            for (int i = 0; i < stars.length; i++) stars[i] = new LongAdder();
+        }
+
+        long[] snapshot() {
+            long[] counts = new long[5];
+            for (int i = 0; i < counts.length; i++) counts[i] = Math.max(0, stars[i].sum());
+            return counts;
+        }
+    }
+
+    // Everything reload() replaces in one swap
+    private static final class State {
+        final Map<Long, Histogram> byProvider = new ConcurrentHashMap<>();
+        final Map<Long, Histogram> byService = new ConcurrentHashMap<>();
+        final LongAdder totalCount = new LongAdder();
+        final LongAdder totalSum = new LongAdder();
+    }
+
+    private volatile State state = new State();
+
+    // Updates run under the read lock; while a reload is reading the table they are also
+    // journaled, and the reload replays them onto its fresh state under the write lock
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile Queue<Consumer<State>> journal;
+
+    // Called with the service id whose ratings changed, or null after a full reload
+    private final List<Consumer<Long>> listeners = new CopyOnWriteArrayList<>();
+
+    private final ReviewRepository reviewRepository;
+    private final double priorWeight;
+
+    public RatingStats(ReviewRepository reviewRepository,
+                       @Value("${reviews.stats.prior-weight:5}") double priorWeight) {
+        this.reviewRepository = reviewRepository;
+        this.priorWeight = priorWeight;
+    }
+
+    // ---------------- writes ---------------- //
+
+    // ✅ delta reviews with this rating were added (> 0) or removed (< 0); applied after commit
+    public void record(Long providerId, Long serviceId, Integer rating, long delta) {
+        if (rating == null || rating < 1 || rating > 5 || delta == 0) return;
+        AfterCommit.run(() -> {
+            update(s -> {
+                if (providerId != null) histogram(s.byProvider, providerId).stars[rating - 1].add(delta);
+                if (serviceId != null) histogram(s.byService, serviceId).stars[rating - 1].add(delta);
+                s.totalCount.add(delta);
+                s.totalSum.add(delta * rating);
+            });
+            listeners.forEach(l -> l.accept(serviceId));
+        });
+    }
+
+    // ✅ A service and all its reviews were deleted
+    public void removeService(Long serviceId, Long providerId) {
+        AfterCommit.run(() -> update(s -> {
+            Histogram removed = s.byService.remove(serviceId);
+            if (removed == null) return;
+            long[] counts = removed.snapshot();
+            Histogram provider = providerId != null ? s.byProvider.get(providerId) : null;
+            for (int i = 0; i < counts.length; i++) {
+                if (provider != null) provider.stars[i].add(-counts[i]);
+                s.totalCount.add(-counts[i]);
+                s.totalSum.add(-counts[i] * (i + 1));
+            }
+        }));
+    }
+
+    // ✅ A provider was deleted; call removeService for their services first
+    public void removeProvider(Long providerId) {
+        AfterCommit.run(() -> update(s -> s.byProvider.remove(providerId)));
+    }
+
+    // ✅ Rebuild everything from the reviews table (one streamed GROUP BY).
+    //    Updates that land while the table is read are replayed onto the new state. A review
+    //    committed just before the read started but applied just after it is counted twice;
+    //    that window is the gap between a commit and its after-commit callback.
+    @Transactional(readOnly = true)
+    public synchronized void reload() {
+        lock.writeLock().lock();
+        try {
+            journal = new ConcurrentLinkedQueue<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        State fresh = new State();
+        try {
+            // rows: providerId, serviceId, rating, count
+            try (Stream<Object[]> rows = reviewRepository.streamRatingCounts()) {
+                for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                    int rating = ((Number) row[2]).intValue();
+                    if (rating < 1 || rating > 5) continue;
+                    long n = ((Number) row[3]).longValue();
+                    histogram(fresh.byProvider, (Long) row[0]).stars[rating - 1].add(n);
+                    histogram(fresh.byService, (Long) row[1]).stars[rating - 1].add(n);
+                    fresh.totalCount.add(n);
+                    fresh.totalSum.add(n * rating);
+                }
+            }
+        } catch (RuntimeException e) {
+            journal = null;
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            journal.forEach(op -> op.accept(fresh));
+            state = fresh;
+            journal = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        listeners.forEach(l -> l.accept(null));
+    }
+
+    public void addListener(Consumer<Long> listener) {
+        listeners.add(listener);
+    }
+
+    // ---------------- reads ---------------- //
+
+    public RatingStatsResponse forProvider(Long providerId) {
+        return toResponse(state.byProvider.get(providerId));
+    }
+
+    public RatingStatsResponse forService(Long serviceId) {
+        return toResponse(state.byService.get(serviceId));
+    }
+
+    // ✅ Number of rated reviews overall
+    public long totalReviews() {
+        return Math.max(0, state.totalCount.sum());
+    }
+
+    // ✅ Ranking score of a service (Bayesian average), O(1)
+    public double serviceScore(Long serviceId) {
+        Histogram h = state.byService.get(serviceId);
+        return bayesian(h != null ? h.snapshot() : new long[5]);
+    }
+
+    public double providerScore(Long providerId) {
+        Histogram h = state.byProvider.get(providerId);
+        return bayesian(h != null ? h.snapshot() : new long[5]);
+    }
+
+    // ---------------- internals ---------------- //
+
+    private RatingStatsResponse toResponse(Histogram h) {
+        long[] counts = h != null ? h.snapshot() : new long[5];
+        long count = 0;
+        long sum = 0;
+        for (int i = 0; i < counts.length; i++) {
+            count += counts[i];
+            sum += counts[i] * (i + 1);
+        }
+        return new RatingStatsResponse(
+                count,
+                count == 0 ? 0.0 : (double) sum / count,
+                counts,
+                percentile(counts, count, 0.25),
+                percentile(counts, count, 0.50),
+                percentile(counts, count, 0.75),
+                bayesian(counts));
+    }
+
+    private double bayesian(long[] counts) {
+        long count = 0;
+        long sum = 0;
+        for (int i = 0; i < counts.length; i++) {
+            count += counts[i];
+            sum += counts[i] * (i + 1);
+        }
+        State s = state;
+        long globalCount = s.totalCount.sum();
+        double globalMean = globalCount > 0 ? (double) s.totalSum.sum() / globalCount : 3.0;
+        return (priorWeight * globalMean + sum) / (priorWeight + count);
+    }
+
+    // Smallest star value whose cumulative count reaches the given fraction (0 when empty)
+    private static int percentile(long[] counts, long total, double fraction) {
+        if (total == 0) return 0;
+        long rank = (long) Math.ceil(fraction * total);
+        long cumulative = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulative += counts[i];
+            if (cumulative >= rank) return i + 1;
+        }
+        return 5;
+    }
+
+    private void update(Consumer<State> op) {
+        lock.readLock().lock();
+        try {
+            op.accept(state);
+            Queue<Consumer<State>> pending = journal;
+            if (pending != null) pending.add(op);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Histogram histogram(Map<Long, Histogram> map, Long id) {
+        return map.computeIfAbsent(id, x -> new Histogram());
+    }
+}
@@ -1,33 +1,68 @@
 package infosys.backend.service;
 
+import infosys.backend.dto.ReviewFeedItemDTO;
+import infosys.backend.dto.RatingStatsResponse;
+import infosys.backend.dto.ReviewPageResponse;
 import infosys.backend.dto.ReviewResponseDTO;
+import infosys.backend.event.DomainEvent;
 import infosys.backend.model.Review;
 import infosys.backend.model.ServiceProvider;
 import infosys.backend.model.User;
 import infosys.backend.repository.ReviewRepository;
+import infosys.backend.repository.ServiceRepository;
 import infosys.backend.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.security.core.Authentication;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 
 @Service
 public class ReviewService {
 
+    private static final Logger log = LoggerFactory.getLogger(ReviewService.class);
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     private ReviewRepository reviewRepository;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private RatingStats ratingStats;
+
+    @Autowired
+    private ApplicationEventPublisher events;
+
     /**
      * ✅ Add a new review (with safety checks)
      */
+    @Transactional
     public Review addReview(Review review) {
+        validateRating(review.getRating());
+
         // Ensure timestamp is set
         review.setCreatedAt(LocalDateTime.now());
 
@@ -42,7 +77,11 @@ public class ReviewService {
             providerOpt.ifPresent(review::setProvider);
         }
 
-        return reviewRepository.save(review);
+        Review saved = reviewRepository.save(review);
+        adjustAggregates(saved, 1, saved.getRating());
+        recordStats(saved, saved.getRating(), 1);
+        events.publishEvent(new DomainEvent.ReviewAdded(saved.getId(), saved.getRating()));
+        return saved;
     }
 
     /**
@@ -52,6 +91,50 @@ public class ReviewService {
         return reviewRepository.findByProvider(provider);
     }
 
+    /**
+     * ✅ Keyset page of flat review rows for a provider and/or service.
+     * sort: "newest" (default) or "rating"; the cursor is opaque and tied to the sort.
+     */
+    public ReviewPageResponse getReviewPage(Long providerId, Long serviceId, String sort,
+                                            String cursor, Integer limit) {
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        boolean byRating = "rating".equalsIgnoreCase(sort);
+        if (!byRating && sort != null && !"newest".equalsIgnoreCase(sort)) {
+            throw new IllegalArgumentException("Unknown sort: " + sort);
+        }
+
+        // Cursor = "<rating>:<id>" of the last row served
+        Integer beforeRating = null;
+        Long beforeId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+                beforeRating = Integer.parseInt(parts[0]);
+                beforeId = Long.parseLong(parts[1]);
+            } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        // Fetch one extra row to know whether another page exists
+        PageRequest page = PageRequest.of(0, size + 1);
+        List<ReviewFeedItemDTO> rows = byRating
+                ? reviewRepository.findFeedByRating(providerId, serviceId, beforeRating, beforeId, page)
+                : reviewRepository.findFeedNewest(providerId, serviceId, beforeId, page);
+
+        boolean hasMore = rows.size() > size;
+        List<ReviewFeedItemDTO> items = hasMore ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            ReviewFeedItemDTO last = items.get(items.size() - 1);
+            int rating = last.getRating() != null ? last.getRating() : 0;
+            nextCursor = Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((rating + ":" + last.getId()).getBytes(StandardCharsets.UTF_8));
+        }
+        return new ReviewPageResponse(items, nextCursor);
+    }
+
     /**
      * ✅ Get all reviews written by a specific customer
      */
@@ -60,15 +143,10 @@ public class ReviewService {
     }
 
     /**
-     * ✅ Calculate average rating for a provider
+     * ✅ Average rating for a provider (from the denormalized aggregates)
      */
     public double getAverageRating(User provider) {
-        List<Review> reviews = reviewRepository.findByProvider(provider);
-        if (reviews.isEmpty()) return 0.0;
-        return reviews.stream()
-                      .mapToInt(Review::getRating)
-                      .average()
-                      .orElse(0.0);
+        return average(provider.getRatingSum(), provider.getRatingCount());
     }
 
     /**
@@ -79,41 +157,111 @@ public class ReviewService {
     }
 
     /**
-     * ✅ Calculate average rating for a specific service
+     * ✅ Average rating for a specific service (from the denormalized aggregates)
      */
     public double getAverageRatingByService(ServiceProvider service) {
-        List<Review> reviews = reviewRepository.findByService(service);
-        if (reviews.isEmpty()) return 0.0;
-        return reviews.stream()
-                      .mapToInt(Review::getRating)
-                      .average()
-                      .orElse(0.0);
+        return average(service.getRatingSum(), service.getRatingCount());
     }
 
     /**
      * ✅ Update an existing review
      */
+    @Transactional
     public Review updateReview(Long reviewId, Review newReview) {
-        return reviewRepository.findById(reviewId)
-                .map(existing -> {
-                    existing.setRating(newReview.getRating());
-                    existing.setComment(newReview.getComment());
-                    return reviewRepository.save(existing);
-                })
+        validateRating(newReview.getRating());
+        Review existing = reviewRepository.findById(reviewId)
                 .orElseThrow(() -> new RuntimeException("Review not found"));
+
+        int oldRating = existing.getRating() != null ? existing.getRating() : 0;
+        existing.setRating(newReview.getRating());
+        existing.setComment(newReview.getComment());
+        Review saved = reviewRepository.save(existing);
+
+        // A legacy review without a rating starts counting now
+        long countDelta = oldRating == 0 ? 1 : 0;
+        if (countDelta != 0 || saved.getRating() != oldRating) {
+            adjustAggregates(saved, countDelta, saved.getRating() - oldRating);
+            recordStats(saved, oldRating == 0 ? null : oldRating, -1);
+            recordStats(saved, saved.getRating(), 1);
+        }
+        return saved;
     }
 
     /**
      * ✅ Delete a review
      */
+    @Transactional
     public void deleteReview(Long reviewId) {
-        if (reviewRepository.existsById(reviewId)) {
-            reviewRepository.deleteById(reviewId);
+        Review review = reviewRepository.findById(reviewId)
+                .orElseThrow(() -> new RuntimeException("Review not found"));
+        reviewRepository.delete(review);
+        if (review.getRating() != null) {
+            adjustAggregates(review, -1, -review.getRating());
+            recordStats(review, review.getRating(), -1);
+        }
+    }
+
+    /**
+     * ✅ Startup: backfill the aggregates once, while the columns are still all zero although
+     * rated reviews exist; afterwards only the in-memory histograms are loaded.
+     */
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeRatingAggregates() {
+        if (reviewRepository.existsByRatingNotNull() && !serviceRepository.existsByRatingCountGreaterThan(0)) {
+            reconcileRatingAggregates();
         } else {
-            throw new RuntimeException("Review not found");
+            ratingStats.reload();
         }
     }
 
+    /**
+     * ✅ Rebuild all rating aggregates from the reviews table (nightly, repairs any drift).
+     */
+    @Transactional
+    @Scheduled(cron = "${reviews.aggregates.reconcile-cron:0 30 3 * * *}")
+    public void reconcileRatingAggregates() {
+        int services = serviceRepository.reconcileRatings();
+        int providers = userRepository.reconcileRatings();
+        ratingStats.reload();
+        catalogCache.invalidateAll();
+        log.info("Rating aggregates reconciled: {} services, {} users", services, providers);
+    }
+
+    // Same transaction as the review write, applied as single UPDATE statements (no read-modify-write)
+    private void adjustAggregates(Review review, long countDelta, long sumDelta) {
+        Long serviceId = review.getService().getId();
+        Long providerId = review.getProvider().getId();
+        serviceRepository.adjustRating(serviceId, countDelta, sumDelta);
+        userRepository.adjustRating(providerId, countDelta, sumDelta);
+        catalogCache.invalidateService(serviceId, providerId); // ratings appear in service snapshots
+    }
+
+    private void recordStats(Review review, Integer rating, int delta) {
+        ratingStats.record(review.getProvider().getId(), review.getService().getId(), rating, delta);
+    }
+
+    /**
+     * ✅ Star histogram, percentiles and Bayesian score (in-memory, O(1))
+     */
+    public RatingStatsResponse getProviderStats(Long providerId) {
+        return ratingStats.forProvider(providerId);
+    }
+
+    public RatingStatsResponse getServiceStats(Long serviceId) {
+        return ratingStats.forService(serviceId);
+    }
+
+    private static void validateRating(Integer rating) {
+        if (rating == null || rating < 1 || rating > 5) {
+            throw new RuntimeException("Rating must be between 1 and 5");
+        }
+    }
+
+    private static double average(long sum, long count) {
+        return count == 0 ? 0.0 : (double) sum / count;
+    }
+
     public ReviewResponseDTO addReply(Long reviewId, String reply) {
     Review review = reviewRepository.findById(reviewId)
             .orElseThrow(() -> new RuntimeException("Review not found"));
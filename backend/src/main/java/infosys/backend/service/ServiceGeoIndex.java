@@ -0,0 +1,170 @@
+package infosys.backend.service;
+
+import infosys.backend.model.ServiceProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory spatial index of services with coordinates.
+ *
+ * Services are bucketed into a fixed lat/lon grid (0.1° cells, ~11 km). A k-nearest
+ * query visits rings of cells around the origin and stops as soon as the k-th result
+ * is closer than any unvisited cell, or the radius is covered. Longitude wrap-around
+ * at the antimeridian is not handled.
+ */
+@Component
+public class ServiceGeoIndex {
+
+    private static final double CELL_DEG = 0.1;
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    private static final double KM_PER_DEG_LAT = 111.32;
+
+    private record Point(long serviceId, double lat, double lon, String category) {}
+
+    public record Hit(Long serviceId, double distanceKm) {}
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, List<Point>> cells = new HashMap<>();
+    private final Map<Long, Point> byServiceId = new HashMap<>();
+
+    // ✅ Replace the whole index (startup warm-up)
+    public void rebuild(Collection<ServiceProvider> services) {
+        lock.writeLock().lock();
+        try {
+            cells.clear();
+            byServiceId.clear();
+            services.forEach(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ✅ Add, move or drop (when coordinates are missing) a single service
+    public void index(ServiceProvider service) {
+        lock.writeLock().lock();
+        try {
+            delete(service.getId());
+            put(service);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ✅ Remove a service; applied after commit, so a rolled-back delete keeps it
+    public void remove(Long serviceId) {
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                delete(serviceId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    // ✅ k nearest services within radiusKm, optionally of one category, nearest first
+    public List<Hit> nearest(double lat, double lon, double radiusKm, String category, int k) {
+        if (k <= 0 || radiusKm <= 0) return List.of();
+
+        // Max-heap on distance holding the best k so far
+        PriorityQueue<Hit> best = new PriorityQueue<>(k + 1,
+                Comparator.comparingDouble(Hit::distanceKm).reversed());
+
+        int row = cellIndex(lat);
+        int col = cellIndex(lon);
+        // Smallest cell side within the search area: a full ring r guarantees r * minSide km of coverage
+        double farthestLat = Math.min(89.0, Math.abs(lat) + radiusKm / KM_PER_DEG_LAT);
+        double minSideKm = CELL_DEG * KM_PER_DEG_LAT * Math.cos(Math.toRadians(farthestLat));
+        int maxRing = (int) Math.ceil(radiusKm / minSideKm) + 1;
+
+        lock.readLock().lock();
+        try {
+            for (int ring = 0; ring <= maxRing; ring++) {
+                for (int r = row - ring; r <= row + ring; r++) {
+                    for (int c = col - ring; c <= col + ring; c++) {
+                        // Only the border of the square is new in this ring
+                        if (Math.abs(r - row) != ring && Math.abs(c - col) != ring) continue;
+                        List<Point> points = cells.get(key(r, c));
+                        if (points == null) continue;
+
+                        for (Point p : points) {
+                            if (category != null && !category.equalsIgnoreCase(p.category())) continue;
+                            double d = haversineKm(lat, lon, p.lat(), p.lon());
+                            if (d > radiusKm) continue;
+                            if (best.size() < k) {
+                                best.offer(new Hit(p.serviceId(), d));
+                            } else if (d < best.peek().distanceKm()) {
+                                best.poll();
+                                best.offer(new Hit(p.serviceId(), d));
+                            }
+                        }
+                    }
+                }
+
+                double coveredKm = ring * minSideKm;
+                if (coveredKm >= radiusKm) break;
+                if (best.size() == k && best.peek().distanceKm() <= coveredKm) break;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Hit> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(Hit::distanceKm));
+        return result;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byServiceId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---------------- internals (write lock held) ---------------- //
+
+    private void put(ServiceProvider service) {
+        if (service.getLatitude() == null || service.getLongitude() == null) return;
+        Point p = new Point(service.getId(), service.getLatitude(), service.getLongitude(), service.getCategory());
+        byServiceId.put(p.serviceId(), p);
+        cells.computeIfAbsent(key(cellIndex(p.lat()), cellIndex(p.lon())), x -> new ArrayList<>()).add(p);
+    }
+
+    private void delete(Long serviceId) {
+        Point p = byServiceId.remove(serviceId);
+        if (p == null) return;
+        long key = key(cellIndex(p.lat()), cellIndex(p.lon()));
+        List<Point> points = cells.get(key);
+        if (points != null) {
+            points.remove(p);
+            if (points.isEmpty()) cells.remove(key);
+        }
+    }
+
+    private static int cellIndex(double degrees) {
+        return (int) Math.floor(degrees / CELL_DEG);
+    }
+
+    private static long key(int row, int col) {
+        return ((long) row << 32) | (col & 0xffffffffL);
+    }
+
+    static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(a));
+    }
+}
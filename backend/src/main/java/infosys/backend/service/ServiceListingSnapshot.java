@@ -0,0 +1,114 @@
+package infosys.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Pre-serialized body of the public GET /api/services listing.
+ * Holds the UTF-8 JSON bytes and their gzip form, each with its own strong ETag (the gzip
+ * one ends in "-gz"), so a request costs a byte copy (or a 304) instead of a query plus
+ * a Jackson pass.
+ *
+ * Catalog invalidations schedule a rebuild on a single background thread; bursts of
+ * changes collapse into one rebuild. The previous snapshot is served until it is ready.
+ * A snapshot older than max-age-seconds is rebuilt the same way, as a backstop for
+ * writes that bypass the catalog cache.
+ */
+@Component
+public class ServiceListingSnapshot {
+
+    public record Snapshot(byte[] json, byte[] gzip, String etag, String gzipEtag, long builtAt) {}
+
+    private static final Logger log = LoggerFactory.getLogger(ServiceListingSnapshot.class);
+
+    private final ServiceProviderService serviceProviderService;
+    private final ObjectMapper objectMapper;
+    private final long maxAgeMillis;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "service-listing-snapshot");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+
+    private volatile Snapshot current;
+
+    public ServiceListingSnapshot(ServiceProviderService serviceProviderService,
+                                  ObjectMapper objectMapper,
+                                  CatalogCache catalogCache,
+                                  @Value("${services.listing.max-age-seconds:300}") long maxAgeSeconds) {
+        this.serviceProviderService = serviceProviderService;
+        this.objectMapper = objectMapper;
+        this.maxAgeMillis = maxAgeSeconds * 1000;
+        catalogCache.addInvalidationListener(this::scheduleRebuild);
+    }
+
+    // ✅ Current snapshot; built synchronously only the very first time
+    public Snapshot current() {
+        Snapshot snapshot = current;
+        if (snapshot == null) {
+            synchronized (this) {
+                if (current == null) current = build();
+                snapshot = current;
+            }
+        } else if (System.currentTimeMillis() - snapshot.builtAt() >= maxAgeMillis) {
+            scheduleRebuild(); // serve the old one meanwhile
+        }
+        return snapshot;
+    }
+
+    private void scheduleRebuild() {
+        if (rebuildPending.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                rebuildPending.set(false);
+                try {
+                    current = build();
+                } catch (RuntimeException e) {
+                    // keep serving the previous snapshot; the next change retries
+                    log.error("Failed to rebuild services snapshot", e);
+                }
+            });
+        }
+    }
+
+    private Snapshot build() {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(serviceProviderService.getAllServices());
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+                gz.write(json);
+            }
+
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            String hash = HexFormat.of().formatHex(digest, 0, 16);
+            return new Snapshot(json, out.toByteArray(), "\"" + hash + "\"", "\"" + hash + "-gz\"",
+                    System.currentTimeMillis());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
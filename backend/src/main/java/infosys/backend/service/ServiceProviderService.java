@@ -1,6 +1,9 @@
 package infosys.backend.service;
 
+import infosys.backend.dto.NearbyServiceResponse;
+import infosys.backend.dto.ServicePageResponse;
 import infosys.backend.dto.ServiceRequest;
+import infosys.backend.dto.ServiceResponse;
 import infosys.backend.enums.Role;
 import infosys.backend.model.ServiceProvider;
 import infosys.backend.model.User;
@@ -9,20 +12,42 @@ import infosys.backend.repository.ReviewRepository;
 import infosys.backend.repository.ServiceRepository;
 import infosys.backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ServiceProviderService {
 
+    private static final Logger log = LoggerFactory.getLogger(ServiceProviderService.class);
+
     private final ServiceRepository serviceRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final ReviewRepository reviewRepository;
+    private final ServiceSearchIndex searchIndex;
+    private final ServiceGeoIndex geoIndex;
+    private final Gazetteer gazetteer;
+    private final RatingStats ratingStats;
+    private final ServiceRanking serviceRanking;
+    private final CatalogCache catalogCache;
+    private final BookingRollupService rollupService;
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
 
     // ✅ Create a new service (PROVIDER only) using email from JWT
     public ServiceProvider createService(ServiceRequest request, String providerEmail) {
@@ -38,13 +63,132 @@ public class ServiceProviderService {
                 .availability(request.getAvailability() != null ? request.getAvailability() : "Available")
                 .location(request.getLocation())
                 .build();
+        applyCoordinates(service, request.getLatitude(), request.getLongitude());
+
+        ServiceProvider saved = serviceRepository.save(service);
+        searchIndex.index(saved);
+        geoIndex.index(saved);
+        serviceRanking.serviceSaved(saved);
+        catalogCache.invalidateService(saved.getId(), provider.getId());
+        return saved;
+    }
+
+    // ✅ Load the search and geo indexes once the app is up
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmIndexes() {
+        List<ServiceProvider> services = serviceRepository.findAllWithProvider();
+
+        // Backfill coordinates of services created before they were stored; only rows the
+        // gazetteer resolves are written, so a restart with nothing new issues no UPDATE
+        List<ServiceProvider> located = services.stream()
+                .filter(s -> (s.getLatitude() == null || s.getLongitude() == null)
+                        && applyCoordinates(s, null, null))
+                .toList();
+        located.forEach(s -> serviceRepository.updateCoordinates(s.getId(), s.getLatitude(), s.getLongitude()));
+
+        searchIndex.rebuild(services);
+        geoIndex.rebuild(services);
+        log.info("Service indexes built: {} searchable, {} located ({} backfilled)",
+                searchIndex.size(), geoIndex.size(), located.size());
+    }
+
+    // Explicit coordinates win; otherwise resolve the location text offline. Returns true if set.
+    private boolean applyCoordinates(ServiceProvider service, Double latitude, Double longitude) {
+        if (latitude != null && longitude != null) {
+            service.setLatitude(latitude);
+            service.setLongitude(longitude);
+            return true;
+        }
+        Gazetteer.GeoPoint point = gazetteer.lookup(service.getLocation()).orElse(null);
+        service.setLatitude(point != null ? point.latitude() : null);
+        service.setLongitude(point != null ? point.longitude() : null);
+        return point != null;
+    }
+
+    // ✅ k nearest services around a point, nearest first
+    public List<NearbyServiceResponse> getNearbyServices(double lat, double lon, double radiusKm,
+                                                         String category, int k) {
+        List<ServiceGeoIndex.Hit> hits = geoIndex.nearest(lat, lon, radiusKm, category, k);
+        if (hits.isEmpty()) return List.of();
+
+        Map<Long, ServiceProvider> byId = serviceRepository.findAllWithProviderByIdIn(
+                        hits.stream().map(ServiceGeoIndex.Hit::serviceId).toList()).stream()
+                .collect(Collectors.toMap(ServiceProvider::getId, Function.identity()));
+
+        return hits.stream()
+                .filter(hit -> byId.containsKey(hit.serviceId()))
+                .map(hit -> new NearbyServiceResponse(
+                        ServiceResponse.fromEntity(byId.get(hit.serviceId())), hit.distanceKm()))
+                .toList();
+    }
+
+    // ✅ Full-text search, best match first
+    public List<ServiceResponse> searchServices(String query, int limit) {
+        List<Long> ids = searchIndex.search(query, limit).stream()
+                .map(ServiceSearchIndex.Hit::serviceId)
+                .toList();
+        if (ids.isEmpty()) return List.of();
+
+        Map<Long, ServiceProvider> byId = serviceRepository.findAllWithProviderByIdIn(ids).stream()
+                .collect(Collectors.toMap(ServiceProvider::getId, Function.identity()));
 
-        return serviceRepository.save(service);
+        // Keep ranking order; ids deleted behind the index's back are skipped
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(ServiceResponse::fromEntity)
+                .toList();
     }
 
-    // ✅ Get all services (CUSTOMER & ADMIN)
-    public List<ServiceProvider> getAllServices() {
-        return serviceRepository.findAll();
+    // ✅ Get all services (CUSTOMER & ADMIN), served from the catalog cache
+    public List<ServiceResponse> getAllServices() {
+        return catalogCache.getAll(() -> serviceRepository.findAllWithProvider().stream()
+                .map(ServiceResponse::fromEntity)
+                .toList());
+    }
+
+    // ✅ Filtered, keyset-paginated catalog page, cheapest first (cursor = opaque token from the previous page)
+    public ServicePageResponse getServicesPage(String category, String subcategory, String location,
+                                               BigDecimal minPrice, BigDecimal maxPrice,
+                                               String cursor, Integer limit) {
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        PageCursor after = PageCursor.decode(cursor);
+
+        // Fetch one extra row to know whether another page exists
+        List<ServiceProvider> rows = serviceRepository.findBy(
+                ServiceRepository.catalogPage(category, subcategory, location, minPrice, maxPrice,
+                        after != null ? after.price() : null, after != null ? after.id() : null),
+                q -> q.sortBy(ServiceRepository.CATALOG_PAGE_ORDER).limit(size + 1).all());
+
+        boolean hasMore = rows.size() > size;
+        List<ServiceProvider> page = hasMore ? rows.subList(0, size) : rows;
+        List<ServiceResponse> items = page.stream()
+                .map(ServiceResponse::fromEntity)
+                .toList();
+
+        ServiceProvider last = hasMore ? page.get(page.size() - 1) : null;
+        String nextCursor = last != null ? new PageCursor(last.getPrice(), last.getId()).encode() : null;
+        return new ServicePageResponse(items, nextCursor);
+    }
+
+    // Keyset position: (price, id) of the last row served, as base64url("price|id")
+    record PageCursor(BigDecimal price, long id) {
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((price.toPlainString() + "|" + id).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static PageCursor decode(String cursor) {
+            if (cursor == null || cursor.isBlank()) return null;
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                if (parts.length != 2) throw new IllegalArgumentException("Invalid cursor");
+                return new PageCursor(new BigDecimal(parts[0]), Long.parseLong(parts[1]));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
     }
 
     // ✅ Get service by ID
@@ -53,9 +197,20 @@ public class ServiceProviderService {
                 .orElseThrow(() -> new IllegalArgumentException("Service not found with ID: " + id));
     }
 
-    // ✅ Get all services by provider
-    public List<ServiceProvider> getServicesByProvider(Long providerId) {
-        return serviceRepository.findByProviderId(providerId);
+    // ✅ Get a service snapshot by ID (cached)
+    public ServiceResponse getServiceResponseById(Long id) {
+        return catalogCache.getById(id, () -> ServiceResponse.fromEntity(getServiceById(id)));
+    }
+
+    // ✅ Get all services by provider (cached)
+    public List<ServiceResponse> getServicesByProvider(Long providerId) {
+        return catalogCache.getByProvider(providerId, () -> serviceRepository.findByProviderId(providerId).stream()
+                .map(ServiceResponse::fromEntity)
+                .toList());
+    }
+
+    public Map<String, Object> getCatalogCacheStats() {
+        return catalogCache.stats();
     }
 
     // ✅ Update existing service (PROVIDER only)
@@ -69,8 +224,16 @@ public class ServiceProviderService {
         if (request.getPrice() != null) existing.setPrice(request.getPrice());
         if (request.getAvailability() != null) existing.setAvailability(request.getAvailability());
         if (request.getLocation() != null) existing.setLocation(request.getLocation());
+        if ((request.getLatitude() != null && request.getLongitude() != null) || request.getLocation() != null) {
+            applyCoordinates(existing, request.getLatitude(), request.getLongitude());
+        }
 
-        return serviceRepository.save(existing);
+        ServiceProvider saved = serviceRepository.save(existing);
+        searchIndex.index(saved);
+        geoIndex.index(saved);
+        serviceRanking.serviceSaved(saved);
+        catalogCache.invalidateService(id, saved.getProvider().getId());
+        return saved;
     }
 
     // ✅ Delete service (PROVIDER only)
@@ -81,13 +244,22 @@ public class ServiceProviderService {
         if (!serviceRepository.existsById(id)) {
             throw new IllegalArgumentException("Service not found with ID: " + id);
         }
+        // The service's reviews leave the provider's rating aggregates with it
+        userRepository.adjustRating(service.getProvider().getId(), -service.getRatingCount(), -service.getRatingSum());
         reviewRepository.deleteByServiceId(id);
+        ratingStats.removeService(id, service.getProvider().getId());
         bookingRepository.deleteByServiceId(id);
-        User provider = service.getProvider();
+        rollupService.servicesDeleted(List.of(id));
+        User provider = userRepository.findWithServicesById(service.getProvider().getId())
+            .orElseThrow(() -> new IllegalArgumentException("Provider not found for service ID: " + id));
     provider.getServices().remove(service);
 
     // Now delete service explicitly (optional)
     serviceRepository.delete(service);
+    searchIndex.remove(id);
+    geoIndex.remove(id);
+    serviceRanking.serviceDeleted(id);
+    catalogCache.invalidateService(id, provider.getId());
 
     System.out.println("Deleted service with ID: " + id);
     }
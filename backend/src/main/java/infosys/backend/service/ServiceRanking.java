@@ -0,0 +1,258 @@
+package infosys.backend.service;
+
+import infosys.backend.dto.RatingStatsResponse;
+import infosys.backend.dto.ServiceResponse;
+import infosys.backend.dto.TopServiceResponse;
+import infosys.backend.enums.BookingStatus;
+import infosys.backend.model.ServiceProvider;
+import infosys.backend.repository.BookingRepository;
+import infosys.backend.repository.ServiceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * "Top services" ranking per category, served from memory.
+ *
+ * score = (Bayesian rating / 5) x decayed bookings, where every non-cancelled booking
+ * weighs 2^((createdAt - landmark) / halfLife). Measuring weights against a fixed landmark
+ * instead of "now" means all scores age by the same factor, so the order never changes
+ * just because time passes and no periodic re-scoring is needed.
+ *
+ * Each category keeps a sorted set of all its services; after every change the first
+ * MAX_K entries are copied into an immutable list, which is all a read touches.
+ * Booking, review and catalog events update single entries; a nightly rebuild
+ * (and the startup warm-up) recomputes everything from the database.
+ */
+@Component
+public class ServiceRanking {
+
+    private static final Logger log = LoggerFactory.getLogger(ServiceRanking.class);
+
+    public static final int MAX_K = 50;
+    private static final String ALL = "";
+
+    private record Ranked(long serviceId, String category, double bookingMass, double rating,
+                          double score, ServiceResponse service) {}
+
+    private static final Comparator<Ranked> ORDER = Comparator
+            .comparingDouble(Ranked::score).reversed()
+            .thenComparing(Comparator.comparingDouble(Ranked::rating).reversed())
+            .thenComparing(Comparator.comparingLong(Ranked::serviceId).reversed());
+
+    private final ServiceRepository serviceRepository;
+    private final BookingRepository bookingRepository;
+    private final RatingStats ratingStats;
+
+    private final long landmarkMillis = System.currentTimeMillis();
+    private final double halfLifeMillis;
+
+    // guarded by this
+    private final Map<Long, Ranked> byId = new HashMap<>();
+    private final Map<String, NavigableSet<Ranked>> byCategory = new HashMap<>();
+
+    // read path: category key → best MAX_K, rebuilt on change
+    private final Map<String, List<TopServiceResponse>> top = new ConcurrentHashMap<>();
+
+    public ServiceRanking(ServiceRepository serviceRepository,
+                          BookingRepository bookingRepository,
+                          RatingStats ratingStats,
+                          @Value("${ranking.booking-half-life-days:30}") double halfLifeDays) {
+        this.serviceRepository = serviceRepository;
+        this.bookingRepository = bookingRepository;
+        this.ratingStats = ratingStats;
+        this.halfLifeMillis = halfLifeDays * 24 * 3600 * 1000;
+        ratingStats.addListener(this::ratingsChanged);
+    }
+
+    // ---------------- reads ---------------- //
+
+    // ✅ Best k services of a category (null/blank = all categories); no database access
+    public List<TopServiceResponse> top(String category, int k) {
+        List<TopServiceResponse> list = top.getOrDefault(key(category), List.of());
+        return list.subList(0, Math.min(Math.max(k, 0), list.size()));
+    }
+
+    // ---------------- events ---------------- //
+
+    // ✅ Service created or edited (category, price, description ...)
+    public void serviceSaved(ServiceProvider service) {
+        ServiceResponse snapshot = withRating(ServiceResponse.fromEntity(service));
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                Ranked old = byId.get(service.getId());
+                put(rank(service.getId(), service.getCategory(), old != null ? old.bookingMass() : 0, snapshot));
+            }
+        });
+    }
+
+    public void serviceDeleted(Long serviceId) {
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                put(null, serviceId);
+            }
+        });
+    }
+
+    // ✅ A provider was renamed; their services' snapshots carry the name
+    public void providerRenamed(Long providerId, String name) {
+        if (providerId == null) return;
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                List<Ranked> renamed = byId.values().stream()
+                        .filter(r -> providerId.equals(r.service().getProviderId()))
+                        .map(r -> new Ranked(r.serviceId(), r.category(), r.bookingMass(), r.rating(), r.score(),
+                                r.service().toBuilder().providerName(name).build()))
+                        .toList();
+                renamed.forEach(this::put);
+            }
+        });
+    }
+
+    // ✅ A booking started counting (delta = 1) or stopped counting (delta = -1, cancelled)
+    public void bookingChanged(Long serviceId, LocalDateTime createdAt, int delta) {
+        if (serviceId == null) return;
+        double weight = weight(createdAt);
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                Ranked old = byId.get(serviceId);
+                if (old == null) return; // unknown service; picked up by the next rebuild
+                put(rank(serviceId, old.category(), Math.max(0, old.bookingMass() + delta * weight), old.service()));
+            }
+        });
+    }
+
+    // RatingStats listener: one service, or every service after a reload
+    private void ratingsChanged(Long serviceId) {
+        synchronized (this) {
+            if (serviceId == null) {
+                replaceAll(byId.values().stream()
+                        .map(old -> rank(old.serviceId(), old.category(), old.bookingMass(), withRating(old.service())))
+                        .toList());
+                return;
+            }
+            Ranked old = byId.get(serviceId);
+            if (old != null) {
+                put(rank(serviceId, old.category(), old.bookingMass(), withRating(old.service())));
+            }
+        }
+    }
+
+    // ---------------- rebuild ---------------- //
+
+    // ✅ Recompute everything from the database (startup and nightly)
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${ranking.rebuild-cron:0 45 3 * * *}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        Map<Long, Double> mass = new HashMap<>();
+        // Bookings older than ~10 half-lives weigh < 0.1% and are skipped
+        LocalDateTime since = LocalDateTime.now().minusSeconds((long) (halfLifeMillis * 10 / 1000));
+        try (Stream<Object[]> rows = bookingRepository.streamCountedBookings(BookingStatus.CANCELLED, since)) {
+            rows.forEach(row -> mass.merge((Long) row[0], weight((LocalDateTime) row[1]), Double::sum));
+        }
+
+        List<Ranked> ranked = serviceRepository.findAllWithProvider().stream()
+                .map(s -> rank(s.getId(), s.getCategory(), mass.getOrDefault(s.getId(), 0.0),
+                        withRating(ServiceResponse.fromEntity(s))))
+                .toList();
+
+        synchronized (this) {
+            replaceAll(ranked);
+        }
+        log.info("Service ranking built: {} services", ranked.size());
+    }
+
+    // ---------------- internals ---------------- //
+
+    private void replaceAll(List<Ranked> ranked) {
+        byId.clear();
+        byCategory.clear();
+        top.clear();
+        for (Ranked r : ranked) {
+            byId.put(r.serviceId(), r);
+            byCategory.computeIfAbsent(r.category(), c -> new TreeSet<>(ORDER)).add(r);
+            byCategory.computeIfAbsent(ALL, c -> new TreeSet<>(ORDER)).add(r);
+        }
+        new ArrayList<>(byCategory.keySet()).forEach(this::publish);
+    }
+
+    private void put(Ranked ranked) {
+        put(ranked, ranked.serviceId());
+    }
+
+    // Replace (or with ranked == null, remove) one entry and republish the touched categories
+    private void put(Ranked ranked, Long serviceId) {
+        Ranked old = byId.remove(serviceId);
+        if (old != null) {
+            byCategory.get(old.category()).remove(old);
+            byCategory.get(ALL).remove(old);
+            publish(old.category());
+        }
+        if (ranked != null) {
+            byId.put(serviceId, ranked);
+            byCategory.computeIfAbsent(ranked.category(), c -> new TreeSet<>(ORDER)).add(ranked);
+            byCategory.computeIfAbsent(ALL, c -> new TreeSet<>(ORDER)).add(ranked);
+            publish(ranked.category());
+        }
+        publish(ALL);
+    }
+
+    private void publish(String category) {
+        NavigableSet<Ranked> set = byCategory.get(category);
+        if (set == null || set.isEmpty()) {
+            byCategory.remove(category);
+            top.remove(category);
+            return;
+        }
+        // Scores are stored in landmark units; report them as of now
+        double now = weight(LocalDateTime.now());
+        List<TopServiceResponse> list = new ArrayList<>(Math.min(MAX_K, set.size()));
+        for (Ranked r : set) {
+            if (list.size() == MAX_K) break;
+            list.add(new TopServiceResponse(r.service(), r.score() / now));
+        }
+        top.put(category, List.copyOf(list));
+    }
+
+    private Ranked rank(long serviceId, String category, double bookingMass, ServiceResponse service) {
+        double rating = ratingStats.serviceScore(serviceId);
+        return new Ranked(serviceId, key(category), bookingMass, rating, rating / 5 * bookingMass, service);
+    }
+
+    // Copy of the snapshot with the current rating count/average
+    private ServiceResponse withRating(ServiceResponse service) {
+        RatingStatsResponse stats = ratingStats.forService(service.getId());
+        return service.toBuilder()
+                .ratingCount(stats.getCount())
+                .averageRating(stats.getAverage())
+                .build();
+    }
+
+    private double weight(LocalDateTime at) {
+        long millis = at != null ? at.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : landmarkMillis;
+        return Math.pow(2, (millis - landmarkMillis) / halfLifeMillis);
+    }
+
+    private static String key(String category) {
+        return category == null || category.isBlank() ? ALL : category.trim().toLowerCase(Locale.ROOT);
+    }
+}
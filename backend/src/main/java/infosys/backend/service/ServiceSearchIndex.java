@@ -0,0 +1,269 @@
+package infosys.backend.service;
+
+import infosys.backend.model.ServiceProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over service category, subcategory, description and location,
+ * ranked with BM25.
+ *
+ * Every indexed service gets a dense int doc id; postings are parallel int arrays
+ * (doc ids ascending, term frequencies). An update tombstones the old doc and appends
+ * a new one; the index compacts itself once tombstones outnumber live docs.
+ */
+@Component
+public class ServiceSearchIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // term → postings
+    private final Map<String, Postings> postings = new HashMap<>();
+    // service id → current doc id
+    private final Map<Long, Integer> docIdByServiceId = new HashMap<>();
+
+    // per doc id
+    private long[] serviceIds = new long[INITIAL_CAPACITY];
+    private int[] docLengths = new int[INITIAL_CAPACITY];
+    private boolean[] deleted = new boolean[INITIAL_CAPACITY];
+
+    private int docCount;       // doc ids handed out (live + deleted)
+    private int liveCount;
+    private long liveTokenCount;
+
+    public record Hit(Long serviceId, float score) {}
+
+    // ✅ Replace the whole index (startup warm-up)
+    public void rebuild(Collection<ServiceProvider> services) {
+        lock.writeLock().lock();
+        try {
+            clear();
+            for (ServiceProvider service : services) {
+                add(service.getId(), tokenize(service));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ✅ Add or re-index a single service
+    public void index(ServiceProvider service) {
+        List<String> tokens = tokenize(service);
+        lock.writeLock().lock();
+        try {
+            delete(service.getId());
+            add(service.getId(), tokens);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ✅ Remove a service from the index; applied after commit, so a rolled-back delete keeps it
+    public void remove(Long serviceId) {
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                delete(serviceId);
+                compactIfNeeded();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    // ✅ Top-k services for a free-text query, best first
+    public List<Hit> search(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty() || limit <= 0) return List.of();
+
+        lock.readLock().lock();
+        try {
+            if (liveCount == 0) return List.of();
+
+            float avgDocLength = (float) liveTokenCount / liveCount;
+            // Only docs that contain a query term get an entry, so a query costs O(matching postings)
+            Map<Integer, Float> scores = new HashMap<>();
+
+            for (String term : terms.stream().distinct().toList()) {
+                Postings p = postings.get(term);
+                if (p == null) continue;
+
+                // p.size may still count tombstoned docs; keep idf strictly positive
+                float idf = Math.max(1e-6f, (float) Math.log(1 + (liveCount - p.size + 0.5) / (p.size + 0.5)));
+                for (int i = 0; i < p.size; i++) {
+                    int doc = p.docIds[i];
+                    if (deleted[doc]) continue;
+
+                    int tf = p.freqs[i];
+                    float norm = K1 * (1 - B + B * docLengths[doc] / avgDocLength);
+                    scores.merge(doc, idf * (tf * (K1 + 1)) / (tf + norm), Float::sum);
+                }
+            }
+
+            // Bounded min-heap keeps only the best `limit` hits
+            PriorityQueue<Map.Entry<Integer, Float>> heap =
+                    new PriorityQueue<>(limit + 1, Map.Entry.comparingByValue());
+            for (Map.Entry<Integer, Float> entry : scores.entrySet()) {
+                heap.offer(entry);
+                if (heap.size() > limit) heap.poll();
+            }
+
+            Hit[] hits = new Hit[heap.size()];
+            for (int i = hits.length - 1; i >= 0; i--) {
+                Map.Entry<Integer, Float> entry = heap.poll();
+                hits[i] = new Hit(serviceIds[entry.getKey()], entry.getValue());
+            }
+            return Arrays.asList(hits);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---------------- internals (write lock held) ---------------- //
+
+    private void add(Long serviceId, List<String> tokens) {
+        int doc = docCount++;
+        ensureCapacity(docCount);
+        serviceIds[doc] = serviceId;
+        docLengths[doc] = tokens.size();
+        deleted[doc] = false;
+        docIdByServiceId.put(serviceId, doc);
+        liveCount++;
+        liveTokenCount += tokens.size();
+
+        Map<String, Integer> freqs = new LinkedHashMap<>();
+        for (String token : tokens) {
+            freqs.merge(token, 1, Integer::sum);
+        }
+        // doc ids only grow, so appending keeps every postings list sorted
+        freqs.forEach((term, tf) -> postings.computeIfAbsent(term, t -> new Postings()).append(doc, tf));
+    }
+
+    private void delete(Long serviceId) {
+        Integer doc = docIdByServiceId.remove(serviceId);
+        if (doc == null) return;
+        deleted[doc] = true;
+        liveCount--;
+        liveTokenCount -= docLengths[doc];
+    }
+
+    private void compactIfNeeded() {
+        int dead = docCount - liveCount;
+        if (dead < 64 || dead < liveCount) return;
+
+        Map<String, Postings> old = new HashMap<>(postings);
+        long[] oldServiceIds = serviceIds;
+        boolean[] oldDeleted = deleted;
+
+        // Remap live docs to a dense range, preserving order
+        int[] remap = new int[docCount];
+        int next = 0;
+        long[] newServiceIds = new long[Math.max(INITIAL_CAPACITY, liveCount * 2)];
+        int[] newLengths = new int[newServiceIds.length];
+        for (int doc = 0; doc < docCount; doc++) {
+            if (oldDeleted[doc]) {
+                remap[doc] = -1;
+                continue;
+            }
+            remap[doc] = next;
+            newServiceIds[next] = oldServiceIds[doc];
+            newLengths[next] = docLengths[doc];
+            docIdByServiceId.put(oldServiceIds[doc], next);
+            next++;
+        }
+
+        postings.clear();
+        old.forEach((term, p) -> {
+            Postings compacted = new Postings();
+            for (int i = 0; i < p.size; i++) {
+                int doc = remap[p.docIds[i]];
+                if (doc >= 0) compacted.append(doc, p.freqs[i]);
+            }
+            if (compacted.size > 0) postings.put(term, compacted);
+        });
+
+        serviceIds = newServiceIds;
+        docLengths = newLengths;
+        deleted = new boolean[newServiceIds.length];
+        docCount = next;
+    }
+
+    private void clear() {
+        postings.clear();
+        docIdByServiceId.clear();
+        serviceIds = new long[INITIAL_CAPACITY];
+        docLengths = new int[INITIAL_CAPACITY];
+        deleted = new boolean[INITIAL_CAPACITY];
+        docCount = 0;
+        liveCount = 0;
+        liveTokenCount = 0;
+    }
+
+    private void ensureCapacity(int size) {
+        if (size <= serviceIds.length) return;
+        int capacity = Math.max(size, serviceIds.length * 2);
+        serviceIds = Arrays.copyOf(serviceIds, capacity);
+        docLengths = Arrays.copyOf(docLengths, capacity);
+        deleted = Arrays.copyOf(deleted, capacity);
+    }
+
+    private static List<String> tokenize(ServiceProvider service) {
+        List<String> tokens = new ArrayList<>();
+        tokens.addAll(tokenize(service.getCategory()));
+        tokens.addAll(tokenize(service.getSubcategory()));
+        tokens.addAll(tokenize(service.getDescription()));
+        tokens.addAll(tokenize(service.getLocation()));
+        return tokens;
+    }
+
+    // Lowercase alphanumeric runs of at least 2 characters
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) return List.of();
+        List<String> tokens = new ArrayList<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (token.length() >= 2) tokens.add(token);
+        }
+        return tokens;
+    }
+
+    // Growable parallel int arrays
+    private static final class Postings {
+        int[] docIds = new int[4];
+        int[] freqs = new int[4];
+        int size;
+
+        void append(int doc, int tf) {
+            if (size == docIds.length) {
+                docIds = Arrays.copyOf(docIds, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docIds[size] = doc;
+            freqs[size] = tf;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package infosys.backend.service;
+
+import infosys.backend.model.User;
+import infosys.backend.repository.ChatNotificationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user unread chat notification counts, so GET /api/notifications/count is a map read.
+ *
+ * A counter is loaded from the database on first access; changes for users without a
+ * loaded counter are skipped, because the next load reads them from the table anyway.
+ * Counters are reloaded after a TTL so any drift (e.g. a load racing a commit) heals.
+ * Every change is pushed to /user/queue/notification-count.
+ */
+@Component
+public class UnreadNotificationCounters {
+
+    private static final Logger log = LoggerFactory.getLogger(UnreadNotificationCounters.class);
+
+    private record Counter(AtomicLong value, long loadedAt) {}
+
+    private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+
+    private final ChatNotificationRepository notificationRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final int maxEntries;
+    private final long ttlMillis;
+
+    public UnreadNotificationCounters(ChatNotificationRepository notificationRepository,
+                                      SimpMessagingTemplate messagingTemplate,
+                                      @Value("${chat.notifications.counters.max-entries:50000}") int maxEntries,
+                                      @Value("${chat.notifications.counters.ttl-minutes:10}") long ttlMinutes) {
+        this.notificationRepository = notificationRepository;
+        this.messagingTemplate = messagingTemplate;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMinutes * 60_000;
+    }
+
+    // ✅ Current unread count; loads it on first access (or after the TTL)
+    public long get(User user) {
+        long now = System.currentTimeMillis();
+        Counter counter = counters.get(user.getId());
+        if (counter == null || now - counter.loadedAt() >= ttlMillis) {
+            if (counter == null && counters.size() >= maxEntries) evict(now);
+            counter = counters.compute(user.getId(), (id, existing) ->
+                    existing != null && now - existing.loadedAt() < ttlMillis
+                            ? existing
+                            : new Counter(new AtomicLong(notificationRepository.countByReceiverAndIsReadFalse(user)), now));
+        }
+        return counter.value().get();
+    }
+
+    // ✅ delta > 0 for new notifications, < 0 for notifications marked read
+    public void add(Long userId, String email, long delta) {
+        if (delta == 0) return;
+        Counter counter = counters.get(userId);
+        if (counter == null) return;
+
+        long value = counter.value().updateAndGet(v -> Math.max(0, v + delta));
+        push(email, value);
+    }
+
+    public void reset(Long userId, String email) {
+        Counter counter = counters.get(userId);
+        if (counter == null) return;
+
+        counter.value().set(0);
+        push(email, 0);
+    }
+
+    // Users without a loaded counter get no push; their clients fetch the count first anyway
+    private void push(String email, long value) {
+        if (email == null) return;
+        try {
+            messagingTemplate.convertAndSendToUser(email.toLowerCase(), "/queue/notification-count",
+                    Map.of("count", value));
+        } catch (RuntimeException e) {
+            log.warn("Unread count push failed: {}", e.getMessage());
+        }
+    }
+
+    // Drop stale counters; if still full, drop arbitrary ones (they reload on next access)
+    private void evict(long now) {
+        counters.values().removeIf(c -> now - c.loadedAt() >= ttlMillis);
+        Iterator<Long> it = counters.keySet().iterator();
+        while (counters.size() >= maxEntries && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+}
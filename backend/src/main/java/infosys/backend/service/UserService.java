@@ -1,5 +1,7 @@
 package infosys.backend.service;
 
+import infosys.backend.dto.UserSummaryDTO;
+import infosys.backend.enums.BookingStatus;
 import infosys.backend.enums.Role;
 import infosys.backend.model.User;
 import infosys.backend.repository.BookingRepository;
@@ -8,11 +10,17 @@ import infosys.backend.repository.ReportRepository;
 import infosys.backend.repository.ReviewRepository;
 import infosys.backend.repository.ServiceRepository;
 import infosys.backend.repository.UserRepository;
+import infosys.backend.security.JwtRevocationList;
+import infosys.backend.security.JwtTokenCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
@@ -24,10 +32,24 @@ public class UserService {
     private final ServiceRepository serviceRepository;
     private final DocumentRepository documentRepository;
     private final ReportRepository reportRepository;
+    private final JwtTokenCache tokenCache;
+    private final JwtRevocationList revocationList;
+    private final CatalogCache catalogCache;
+    private final RatingStats ratingStats;
+    private final ServiceRanking serviceRanking;
+    private final ServiceSearchIndex searchIndex;
+    private final ServiceGeoIndex geoIndex;
+    private final ChatUserDirectory chatUserDirectory;
+    private final BookingRollupService rollupService;
+
+    // 🔹 Read all users (flat projection)
+    public List<UserSummaryDTO> getAllUsers() {
+        return userRepository.findAllSummaries();
+    }
 
-    // 🔹 Read all users
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    // 🔹 Verified providers only (flat projection)
+    public List<UserSummaryDTO> getVerifiedProviders() {
+        return userRepository.findVerifiedSummariesByRole(Role.PROVIDER);
     }
 
     // 🔹 Read user by id
@@ -47,6 +69,11 @@ public class UserService {
         User existing = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
+        // Role or email changes invalidate the claims of already issued tokens
+        boolean claimsChanged = existing.getRole() != updatedUser.getRole()
+                || !Objects.equals(existing.getEmail(), updatedUser.getEmail());
+        boolean renamed = !Objects.equals(existing.getName(), updatedUser.getName());
+
         existing.setName(updatedUser.getName());
         existing.setEmail(updatedUser.getEmail());
         existing.setLocation(updatedUser.getLocation());
@@ -55,7 +82,13 @@ public class UserService {
             existing.setPassword(updatedUser.getPassword());
         }
 
-        return userRepository.save(existing);
+        User saved = userRepository.save(existing);
+        if (claimsChanged) revocationList.revoke(id);
+        tokenCache.invalidateUser(id); // cached principals are now stale
+        catalogCache.invalidateProvider(id); // provider name appears in service snapshots
+        if (renamed) serviceRanking.providerRenamed(id, saved.getName());
+        chatUserDirectory.invalidate(id);
+        return saved;
     }
 
     @Transactional
@@ -63,7 +96,15 @@ public void deleteUser(Long id) {
     User user = userRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("User not found"));
 
+    // Ratings this user gave on other providers' services: (providerId, serviceId, rating, count)
+    List<Object[]> givenRatings = reviewRepository.countRatingsByCustomer(id);
+    List<Long> serviceIds = serviceRepository.findIdsByProviderId(id);
+    // (serviceId, createdAt) of this user's bookings that count towards other services' rankings
+    List<Object[]> countedBookings = bookingRepository.findCountedByCustomerId(id, BookingStatus.CANCELLED);
+
     // 1️⃣ Delete related entities
+    rollupService.removeCustomerBookings(id); // reads the bookings, so it goes first
+    rollupService.servicesDeleted(serviceIds);
     bookingRepository.deleteByCustomerId(id);
     bookingRepository.deleteByProviderId(id);
     reviewRepository.deleteByCustomerId(id);
@@ -75,8 +116,46 @@ public void deleteUser(Long id) {
 
     // 2️⃣ Delete user
     userRepository.deleteById(id);
+
+    // Take the deleted reviews out of the aggregates of the services/providers they rated
+    removeGivenRatings(givenRatings);
+    serviceIds.forEach(serviceId -> ratingStats.removeService(serviceId, id));
+    ratingStats.removeProvider(id);
+    serviceIds.forEach(serviceRanking::serviceDeleted);
+    serviceIds.forEach(searchIndex::remove);
+    serviceIds.forEach(geoIndex::remove);
+    for (Object[] row : countedBookings) {
+        serviceRanking.bookingChanged((Long) row[0], (LocalDateTime) row[1], -1);
+    }
+    revocationList.revoke(id);
+    tokenCache.invalidateUser(id);
+    chatUserDirectory.invalidate(id);
+    catalogCache.invalidateAll(); // services were bulk-deleted
+
 }
 
+    // One UPDATE per affected service and provider instead of a full-table reconcile
+    private void removeGivenRatings(List<Object[]> givenRatings) {
+        Map<Long, long[]> perService = new HashMap<>();
+        Map<Long, long[]> perProvider = new HashMap<>();
+        for (Object[] row : givenRatings) {
+            long count = ((Number) row[3]).longValue();
+            long sum = count * ((Number) row[2]).intValue();
+            long[] service = perService.computeIfAbsent((Long) row[1], k -> new long[2]);
+            service[0] += count;
+            service[1] += sum;
+            long[] provider = perProvider.computeIfAbsent((Long) row[0], k -> new long[2]);
+            provider[0] += count;
+            provider[1] += sum;
+        }
+        perService.forEach((serviceId, d) -> serviceRepository.adjustRating(serviceId, -d[0], -d[1]));
+        perProvider.forEach((providerId, d) -> userRepository.adjustRating(providerId, -d[0], -d[1]));
+        for (Object[] row : givenRatings) {
+            ratingStats.record((Long) row[0], (Long) row[1], ((Number) row[2]).intValue(),
+                    -((Number) row[3]).longValue());
+        }
+    }
+
     public User findByUsername(String username) {
     return userRepository.findByName(username)
             .orElseThrow(() -> new RuntimeException("User not found"));
@@ -86,10 +165,10 @@ public String getRole(Long id) {
         User user = getUserById(id);
         return user.getRole().name();
     }
-     public List<User> getUsersByRole(String role) {
+     public List<UserSummaryDTO> getUsersByRole(String role) {
     try {
         Role roleEnum = Role.valueOf(role.toUpperCase()); // Convert string to enum
-        return userRepository.findByRole(roleEnum);
+        return userRepository.findSummariesByRole(roleEnum);
     } catch (IllegalArgumentException e) {
         throw new RuntimeException("Invalid role: " + role);
     }
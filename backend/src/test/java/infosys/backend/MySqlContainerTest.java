@@ -0,0 +1,96 @@
+package infosys.backend;
+
+import infosys.backend.enums.Role;
+import infosys.backend.model.User;
+import infosys.backend.repository.UserRepository;
+import infosys.backend.security.JwtUtil;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.function.Executable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.UUID;
+
+/**
+ * Base for tests that need the real schema and SQL dialect.
+ *
+ * Boots the whole application against a throwaway MySQL 8 container (the tests are skipped
+ * when Docker is not available). All subclasses share one context and one container, so
+ * data seeded by one test class is visible to the next; seed with unique names and assert
+ * on what the test itself created (seedUser does that for users). Hibernate statistics are on, so a test can count the
+ * SQL statements a call issues.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.springframework.web=INFO"
+})
+@AutoConfigureMockMvc
+@Import(MySqlContainerTest.Containers.class)
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class MySqlContainerTest {
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class Containers {
+
+        // Started and stopped with the (cached) application context
+        @Bean
+        @ServiceConnection
+        MySQLContainer<?> mysql() {
+            return new MySQLContainer<>(DockerImageName.parse("mysql:8.0"));
+        }
+    }
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @Autowired
+    protected JwtUtil jwtUtil;
+
+    @Autowired
+    protected UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final String run = UUID.randomUUID().toString().substring(0, 8);
+    private int seeded;
+
+    // ✅ Number of JDBC statements Hibernate prepared while the action ran
+    protected long statementsFor(Executable action) throws Throwable {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        action.execute();
+        return statistics.getPrepareStatementCount();
+    }
+
+    protected String bearer(User user) {
+        return "Bearer " + jwtUtil.generateToken(user);
+    }
+
+    // ✅ A verified user whose name and email are unique to this test instance
+    protected User seedUser(Role role) {
+        int n = seeded++;
+        User user = User.builder()
+                .name("User " + run + "-" + n)
+                .email(run + "-" + n + "@seeded.test")
+                .password("x")
+                .role(role)
+                .location("Pune")
+                .build();
+        user.setVerified(true);
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,154 @@
+package infosys.backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import infosys.backend.MySqlContainerTest;
+import infosys.backend.dto.ReviewFeedItemDTO;
+import infosys.backend.dto.ReviewPageResponse;
+import infosys.backend.enums.Role;
+import infosys.backend.model.ServiceProvider;
+import infosys.backend.model.User;
+import infosys.backend.repository.ServiceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Review feed pages are one statement each and a few hundred bytes per review, where the
+ * unpaged entity endpoint serializes the whole customer/provider/service graph per row.
+ */
+class ReviewFeedQueryCountTest extends MySqlContainerTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ReviewFeedQueryCountTest.class);
+
+    private static final int REVIEWS = 200;
+    private static final int CUSTOMERS = 20;
+    private static final int PAGE = 20;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private User provider;
+    private String token;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        provider = seedUser(Role.PROVIDER);
+        ServiceProvider service = serviceRepository.save(ServiceProvider.builder()
+                .provider(provider)
+                .category("Plumber")
+                .subcategory("Leaks")
+                .description("Leak repair")
+                .price(BigDecimal.valueOf(400))
+                .location("Pune")
+                .build());
+
+        List<User> customers = new ArrayList<>();
+        for (int i = 0; i < CUSTOMERS; i++) customers.add(seedUser(Role.CUSTOMER));
+
+        // Plain JDBC batch, so seeding stays out of the Hibernate statistics
+        LocalDateTime start = LocalDateTime.now().minusDays(30);
+        List<Object[]> rows = new ArrayList<>(REVIEWS);
+        for (int i = 0; i < REVIEWS; i++) {
+            rows.add(new Object[] {customers.get(i % CUSTOMERS).getId(), provider.getId(), service.getId(),
+                    1 + i % 5, "Review number " + i, Timestamp.valueOf(start.plusMinutes(i))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO reviews (customer_id, provider_id, service_id, rating, comment, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", rows);
+
+        token = bearer(customers.get(0));
+        mockMvc.perform(get("/api/users/me").header("Authorization", token)).andExpect(status().isOk());
+    }
+
+    private String fetch(String url) throws Exception {
+        return mockMvc.perform(get(url).header("Authorization", token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private List<ReviewFeedItemDTO> walk(String sort) throws Throwable {
+        List<ReviewFeedItemDTO> all = new ArrayList<>();
+        String cursor = null;
+        do {
+            String url = "/api/reviews/provider/" + provider.getId() + "?limit=" + PAGE + "&sort=" + sort
+                    + (cursor != null ? "&cursor=" + cursor : "");
+            String[] body = new String[1];
+            assertEquals(1, statementsFor(() -> body[0] = fetch(url)), "one statement per page");
+
+            ReviewPageResponse page = objectMapper.readValue(body[0], ReviewPageResponse.class);
+            all.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return all;
+    }
+
+    @Test
+    void everyPageIsOneStatementAndTheCursorCoversAllReviews() throws Throwable {
+        List<ReviewFeedItemDTO> newest = walk("newest");
+
+        assertEquals(REVIEWS, newest.size());
+        Set<Long> ids = new HashSet<>();
+        newest.forEach(item -> ids.add(item.getId()));
+        assertEquals(REVIEWS, ids.size(), "no review served twice");
+        for (int i = 1; i < newest.size(); i++) {
+            assertTrue(newest.get(i - 1).getId() > newest.get(i).getId());
+        }
+
+        List<ReviewFeedItemDTO> byRating = walk("rating");
+        assertEquals(REVIEWS, byRating.size());
+        for (int i = 1; i < byRating.size(); i++) {
+            ReviewFeedItemDTO prev = byRating.get(i - 1);
+            ReviewFeedItemDTO next = byRating.get(i);
+            assertTrue(prev.getRating() > next.getRating()
+                    || (prev.getRating().equals(next.getRating()) && prev.getId() > next.getId()));
+        }
+    }
+
+    @Test
+    void pagesAreFlatAndSmallerThanTheEntityGraph() throws Throwable {
+        String[] paged = new String[1];
+        long pagedStatements = statementsFor(() -> paged[0] = fetch(
+                "/api/reviews/provider/" + provider.getId() + "?limit=" + PAGE));
+        String[] legacy = new String[1];
+        long legacyStatements = statementsFor(() -> legacy[0] = fetch(
+                "/api/reviews/provider/" + provider.getId()));
+
+        ReviewPageResponse page = objectMapper.readValue(paged[0], ReviewPageResponse.class);
+        assertEquals(PAGE, page.getItems().size());
+        assertNull(page.getItems().get(0).getBookingId());
+        assertFalse(paged[0].contains("\"password\""));
+        assertFalse(paged[0].contains("\"customer\""));
+
+        int pagedBytesPerReview = paged[0].getBytes().length / PAGE;
+        int legacyBytesPerReview = legacy[0].getBytes().length / REVIEWS;
+        log.info("Review feed: {} B/review in {} statement(s); entity endpoint: {} B/review in {} statements",
+                pagedBytesPerReview, pagedStatements, legacyBytesPerReview, legacyStatements);
+
+        assertEquals(1, pagedStatements);
+        assertTrue(pagedBytesPerReview < 400, "was " + pagedBytesPerReview + " B per review");
+        assertTrue(pagedBytesPerReview * 2 < legacyBytesPerReview);
+    }
+}
@@ -0,0 +1,110 @@
+package infosys.backend.controller;
+
+import infosys.backend.MySqlContainerTest;
+import infosys.backend.enums.Role;
+import infosys.backend.model.ServiceProvider;
+import infosys.backend.model.User;
+import infosys.backend.repository.ServiceRepository;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards against the User → services N+1: user reads and the user list endpoints must issue
+ * a fixed number of statements, however many providers and services exist.
+ */
+class UserControllerQueryCountTest extends MySqlContainerTest {
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    private String adminToken;
+    private String customerToken;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        adminToken = bearer(userRepository.findByEmail("admin@gmail.com").orElseThrow());
+        customerToken = bearer(seedUser(Role.CUSTOMER));
+
+        // First request per token loads the user; later ones hit the token cache
+        mockMvc.perform(get("/api/users/me").header("Authorization", adminToken)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/users/me").header("Authorization", customerToken)).andExpect(status().isOk());
+    }
+
+    // Providers with three services each
+    private User seedProviders(int count) {
+        User last = null;
+        for (int i = 0; i < count; i++) {
+            User provider = seedUser(Role.PROVIDER);
+            serviceRepository.saveAll(List.of(
+                    service(provider, "Plumber"),
+                    service(provider, "Electrician"),
+                    service(provider, "Painter")));
+            last = provider;
+        }
+        return last;
+    }
+
+    private static ServiceProvider service(User provider, String category) {
+        return ServiceProvider.builder()
+                .provider(provider)
+                .category(category)
+                .description(category + " at home")
+                .price(BigDecimal.valueOf(500))
+                .location("Pune")
+                .build();
+    }
+
+    private long statementsForGet(String url, String token) throws Throwable {
+        return statementsFor(() -> mockMvc.perform(get(url).header("Authorization", token))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void listEndpointsIssueOneStatementWhateverTheNumberOfServices() throws Throwable {
+        seedProviders(2);
+        assertEquals(1, statementsForGet("/api/users/all", adminToken));
+        assertEquals(1, statementsForGet("/api/users/customers", adminToken));
+        assertEquals(1, statementsForGet("/api/users/providers", customerToken));
+
+        seedProviders(10);
+        assertEquals(1, statementsForGet("/api/users/all", adminToken));
+        assertEquals(1, statementsForGet("/api/users/customers", adminToken));
+        assertEquals(1, statementsForGet("/api/users/providers", customerToken));
+    }
+
+    @Test
+    void profileReadsDoNotLoadServices() throws Throwable {
+        User provider = seedProviders(1);
+        String providerToken = bearer(provider);
+
+        // Cold token: the filter's user lookup plus the profile read
+        assertEquals(2, statementsForGet("/api/users/me", providerToken));
+        // Cached token: only the profile read
+        assertEquals(1, statementsForGet("/api/users/me", providerToken));
+        assertEquals(1, statementsForGet("/api/users/id/" + provider.getId(), adminToken));
+    }
+
+    @Test
+    void servicesAreLoadedOnlyByTheEntityGraphVariant() throws Throwable {
+        User provider = seedProviders(1);
+
+        User[] loaded = new User[1];
+        assertEquals(1, statementsFor(() -> loaded[0] = userRepository.findByEmail(provider.getEmail()).orElseThrow()));
+        assertFalse(Hibernate.isInitialized(loaded[0].getServices()));
+
+        assertEquals(1, statementsFor(() -> loaded[0] = userRepository.findWithServicesById(provider.getId()).orElseThrow()));
+        assertTrue(Hibernate.isInitialized(loaded[0].getServices()));
+        assertEquals(3, loaded[0].getServices().size());
+    }
+}
@@ -0,0 +1,82 @@
+package infosys.backend.security;
+
+import infosys.backend.enums.Role;
+import infosys.backend.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request JWT verification cost: the old path (a new parser per call, and three
+ * verifications per request: extractUsername, then validateToken = extractUsername +
+ * isTokenExpired) against one parseAndValidate on the shared parser.
+ *
+ * Run main() after mvn test-compile, e.g. from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtParseBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(null);
+        token = jwtUtil.generateToken(User.builder()
+                .id(42L)
+                .name("Benchmark User")
+                .email("benchmark@example.com")
+                .role(Role.CUSTOMER)
+                .build());
+    }
+
+    @Benchmark
+    public void legacyThreeParses(Blackhole bh) {
+        String email = legacyClaims(token).getSubject();
+        boolean valid = legacyClaims(token).getSubject().equals(email)
+                && !legacyClaims(token).getExpiration().before(new Date());
+        bh.consume(email);
+        bh.consume(valid);
+    }
+
+    @Benchmark
+    public JwtClaims parseAndValidate() {
+        return jwtUtil.parseAndValidate(token);
+    }
+
+    // What JwtUtil.getClaims did before the parser was shared
+    private Claims legacyClaims(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(jwtUtil.signingKey())
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtParseBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,104 @@
+package infosys.backend.security;
+
+import infosys.backend.enums.Role;
+import infosys.backend.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtTokenCacheTest {
+
+    private static User user(long id) {
+        User user = User.builder()
+                .id(id)
+                .name("User " + id)
+                .email("user" + id + "@example.com")
+                .password("secret")
+                .role(Role.CUSTOMER)
+                .services(List.of())
+                .build();
+        user.setVerified(true);
+        return user;
+    }
+
+    private static JwtClaims claims(User user, Instant expiresAt) {
+        return new JwtClaims(user.getEmail(), user.getRole().name(), user.getId(), user.getName(),
+                Instant.now(), expiresAt);
+    }
+
+    @Test
+    void returnsCachedEntryWithDetachedPrincipal() {
+        JwtTokenCache cache = new JwtTokenCache(10, 300);
+        User user = user(1);
+
+        cache.put("token-1", claims(user, Instant.now().plusSeconds(3600)), user);
+        JwtTokenCache.Entry entry = cache.get("token-1");
+
+        assertNotNull(entry);
+        assertNotSame(user, entry.principal());
+        assertEquals(1L, entry.principal().getId());
+        assertEquals("user1@example.com", entry.principal().getEmail());
+        assertTrue(entry.principal().isVerified());
+        assertNull(entry.principal().getPassword());
+        assertNull(entry.principal().getServices());
+        assertNull(cache.get("token-2"));
+    }
+
+    @Test
+    void entryExpiresWithTheToken() {
+        JwtTokenCache cache = new JwtTokenCache(10, 300);
+        User user = user(1);
+
+        cache.put("expired", claims(user, Instant.now().minusSeconds(1)), user);
+
+        assertNull(cache.get("expired"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void ttlCapsTokensThatLiveLonger() {
+        JwtTokenCache cache = new JwtTokenCache(10, 0);
+        User user = user(1);
+
+        cache.put("long-lived", claims(user, Instant.now().plusSeconds(3600)), user);
+
+        assertNull(cache.get("long-lived"));
+    }
+
+    @Test
+    void staysWithinMaxEntries() {
+        JwtTokenCache cache = new JwtTokenCache(3, 300);
+        for (long id = 1; id <= 10; id++) {
+            User user = user(id);
+            cache.put("token-" + id, claims(user, Instant.now().plusSeconds(3600)), user);
+            assertTrue(cache.size() <= 3);
+        }
+        assertNotNull(cache.get("token-10"));
+    }
+
+    @Test
+    void invalidateUserDropsOnlyThatUsersTokens() {
+        JwtTokenCache cache = new JwtTokenCache(10, 300);
+        User first = user(1);
+        User second = user(2);
+        cache.put("first-a", claims(first, Instant.now().plusSeconds(3600)), first);
+        cache.put("first-b", claims(first, Instant.now().plusSeconds(3600)), first);
+        cache.put("second", claims(second, Instant.now().plusSeconds(3600)), second);
+
+        cache.invalidateUser(1L);
+
+        assertNull(cache.get("first-a"));
+        assertNull(cache.get("first-b"));
+        assertNotNull(cache.get("second"));
+
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+    }
+}
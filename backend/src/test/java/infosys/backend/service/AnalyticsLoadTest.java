@@ -0,0 +1,198 @@
+package infosys.backend.service;
+
+import infosys.backend.MySqlContainerTest;
+import infosys.backend.dto.AnalyticsView;
+import infosys.backend.dto.TimeSeriesPoint;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.function.ThrowingSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Load harness for the admin analytics reads, which are served from the booking rollup tables:
+ * seeds a large bookings table (1M rows by default) into the MySQL test container, rebuilds the
+ * rollups from it and checks that each read (top providers, categories, locations and the
+ * booking series) is one rollup statement with small latency and allocation, and agrees with
+ * the bookings table.
+ *
+ * Opt-in, as seeding takes a while:
+ * mvn test -Dtest=AnalyticsLoadTest -Dbenchmarks=true [-Danalytics.load.bookings=1000000]
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class AnalyticsLoadTest extends MySqlContainerTest {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalyticsLoadTest.class);
+
+    private static final int BOOKINGS = Integer.getInteger("analytics.load.bookings", 1_000_000);
+    private static final int PROVIDERS = 25;
+    private static final int SERVICES = 100;
+    private static final int DAYS = 365;
+    private static final int RUNS = 5;
+
+    // Reads must stay well below these on a laptop-class container
+    private static final long MAX_MILLIS = 2_000;
+    private static final long MAX_ALLOCATED_BYTES = 8L * 1024 * 1024;
+
+    private static final String DIGITS = "(SELECT 0 AS d UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 " +
+            "UNION ALL SELECT 4 UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 " +
+            "UNION ALL SELECT 9)";
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private BookingRollupService rollupService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String run = UUID.randomUUID().toString().substring(0, 8);
+
+    private record Measured<T>(T result, long statements, long millis, long allocatedBytes) {}
+
+    @BeforeAll
+    void seed() {
+        long start = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+
+        jdbcTemplate.update("INSERT INTO users (name, email, password, role, location, created_at, is_verified) " +
+                "VALUES (?, ?, 'x', 'CUSTOMER', 'Pune', ?, TRUE)",
+                "Load customer " + run, run + "-customer@analytics-load.test", Timestamp.valueOf(now));
+        Long customerId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = ?", Long.class,
+                run + "-customer@analytics-load.test");
+
+        List<Object[]> providers = new ArrayList<>();
+        for (int i = 0; i < PROVIDERS; i++) {
+            providers.add(new Object[] {"Load provider " + run + "-" + i, run + "-" + i + "@analytics-load.test",
+                    Timestamp.valueOf(now)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (name, email, password, role, location, created_at, is_verified) " +
+                "VALUES (?, ?, 'x', 'PROVIDER', 'Pune', ?, TRUE)", providers);
+        List<Long> providerIds = jdbcTemplate.queryForList(
+                "SELECT id FROM users WHERE email LIKE ? AND role = 'PROVIDER' ORDER BY id", Long.class,
+                run + "-%@analytics-load.test");
+
+        List<Object[]> services = new ArrayList<>();
+        for (int i = 0; i < SERVICES; i++) {
+            services.add(new Object[] {providerIds.get(i % PROVIDERS), "Category " + (i % 10),
+                    "Load " + run, "Location " + (i % 20), Timestamp.valueOf(now)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO services (provider_id, category, description, price, location, created_at) " +
+                "VALUES (?, ?, ?, 500, ?, ?)", services);
+
+        // Sequence 0..BOOKINGS-1 from cross-joined digit tables; service n % SERVICES, day n % DAYS
+        int digits = String.valueOf(BOOKINGS - 1).length();
+        StringBuilder sequence = new StringBuilder("SELECT ");
+        StringBuilder from = new StringBuilder();
+        for (int i = 0; i < digits; i++) {
+            sequence.append(i == 0 ? "" : " + ").append("d").append(i).append(".d * ").append((long) Math.pow(10, i));
+            from.append(i == 0 ? " FROM " : " CROSS JOIN ").append(DIGITS).append(" d").append(i);
+        }
+        int inserted = jdbcTemplate.update(
+                "INSERT INTO bookings (service_id, customer_id, provider_id, booking_date, time_slot, status, " +
+                "created_at, provider_marked_complete, customer_verified) " +
+                "SELECT s.id, ?, s.provider_id, DATE(seq.at), '10:00', " +
+                "ELT(1 + seq.n % 4, 'PENDING', 'CONFIRMED', 'COMPLETED', 'CANCELLED'), seq.at, FALSE, FALSE " +
+                "FROM (SELECT n, NOW() - INTERVAL (n % " + DAYS + ") DAY - INTERVAL (n % 86400) SECOND AS at " +
+                "FROM (" + sequence + " AS n" + from + ") x WHERE n < ?) seq " +
+                "JOIN (SELECT id, provider_id, ROW_NUMBER() OVER (ORDER BY id) - 1 AS rn " +
+                "FROM services WHERE description = ?) s ON s.rn = seq.n % " + SERVICES,
+                customerId, BOOKINGS, "Load " + run);
+        assertEquals(BOOKINGS, inserted);
+        log.info("Seeded {} bookings in {} ms", inserted, System.currentTimeMillis() - start);
+
+        start = System.currentTimeMillis();
+        rollupService.reconcile();
+        log.info("Rollups rebuilt from {} bookings in {} ms", inserted, System.currentTimeMillis() - start);
+    }
+
+    // Best of RUNS: statements, wall time and bytes allocated by this thread for one call
+    private <T> Measured<T> measure(String name, ThrowingSupplier<T> call) throws Throwable {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Measured<T> best = null;
+        for (int i = 0; i < RUNS; i++) {
+            Object[] result = new Object[1];
+            long[] elapsed = new long[2];
+            long statements = statementsFor(() -> {
+                long allocated = threads.getCurrentThreadAllocatedBytes();
+                long start = System.nanoTime();
+                result[0] = call.get();
+                elapsed[0] = (System.nanoTime() - start) / 1_000_000;
+                elapsed[1] = threads.getCurrentThreadAllocatedBytes() - allocated;
+            });
+            @SuppressWarnings("unchecked")
+            Measured<T> m = new Measured<>((T) result[0], statements, elapsed[0], elapsed[1]);
+            if (best == null || m.millis() < best.millis()) best = m;
+        }
+        log.info("{}: {} ms, {} statement(s), {} KB allocated", name, best.millis(), best.statements(),
+                best.allocatedBytes() / 1024);
+        return best;
+    }
+
+    private static void assertBounded(Measured<?> m) {
+        assertEquals(1, m.statements());
+        assertTrue(m.millis() < MAX_MILLIS, "took " + m.millis() + " ms");
+        assertTrue(m.allocatedBytes() < MAX_ALLOCATED_BYTES, "allocated " + m.allocatedBytes() + " bytes");
+    }
+
+    @Test
+    void topProvidersMatchesTheBookingsTable() throws Throwable {
+        Measured<List<AnalyticsView.ProviderBookings>> top =
+                measure("topProviders(5)", () -> analyticsService.getTopProviders(5));
+        assertBounded(top);
+        assertEquals(5, top.result().size());
+
+        Map<String, Object> expected = jdbcTemplate.queryForMap(
+                "SELECT s.provider_id AS id, COUNT(*) AS n FROM bookings b JOIN services s ON s.id = b.service_id " +
+                "GROUP BY s.provider_id ORDER BY n DESC, s.provider_id LIMIT 1");
+        assertEquals(((Number) expected.get("n")).longValue(), top.result().get(0).getTotalBookings());
+    }
+
+    @Test
+    void topCategoriesAndLocationsAreBounded() throws Throwable {
+        Measured<List<AnalyticsView.CategoryBookings>> categories =
+                measure("topCategories(5)", () -> analyticsService.getTopServices(5));
+        assertBounded(categories);
+        assertEquals(5, categories.result().size());
+
+        Measured<List<AnalyticsView.LocationBookings>> locations =
+                measure("topLocations(5)", () -> analyticsService.getLocationTrends(5));
+        assertBounded(locations);
+        assertEquals(5, locations.result().size());
+    }
+
+    @Test
+    void dailySeriesReadsRollupsNotBookings() throws Throwable {
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusDays(89);
+
+        Measured<List<TimeSeriesPoint>> series =
+                measure("bookingSeries(90 days)", () -> analyticsService.getBookingSeries(from, to, "day"));
+        assertBounded(series);
+        assertEquals(90, series.result().size());
+
+        long total = series.result().stream().mapToLong(TimeSeriesPoint::getCount).sum();
+        Long expected = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM bookings WHERE created_at >= ? AND created_at < ?", Long.class,
+                from, to.plusDays(1));
+        assertEquals(expected, total);
+    }
+}
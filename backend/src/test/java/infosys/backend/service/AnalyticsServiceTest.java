@@ -0,0 +1,124 @@
+package infosys.backend.service;
+
+import infosys.backend.dto.TimeSeriesPoint;
+import infosys.backend.repository.BookingRollupRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AnalyticsServiceTest {
+
+    private final BookingRollupRepository rollupRepo = mock(BookingRollupRepository.class);
+    private final AnalyticsService service = new AnalyticsService(rollupRepo, mock(RatingStats.class));
+
+    // Bookings per day; sumPerDay answers from here like the rollup query does, for [from, to)
+    private final Map<LocalDate, Long> perDay = new TreeMap<>();
+
+    @BeforeEach
+    void setUp() {
+        when(rollupRepo.sumPerDay(any(), any())).thenAnswer(invocation -> {
+            LocalDate from = invocation.getArgument(0);
+            LocalDate to = invocation.getArgument(1);
+            List<Object[]> rows = new ArrayList<>();
+            perDay.forEach((day, count) -> {
+                if (!day.isBefore(from) && day.isBefore(to)) rows.add(new Object[] {day, count});
+            });
+            return rows;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    private static List<LocalDate> starts(List<TimeSeriesPoint> series) {
+        return series.stream().map(TimeSeriesPoint::getStart).toList();
+    }
+
+    private static List<Long> counts(List<TimeSeriesPoint> series) {
+        return series.stream().map(TimeSeriesPoint::getCount).toList();
+    }
+
+    @Test
+    void weeksAcrossTheYearBoundaryStartOnMonday() {
+        perDay.put(LocalDate.of(2024, 12, 24), 5L); // before from: not counted
+        perDay.put(LocalDate.of(2024, 12, 29), 2L);
+        perDay.put(LocalDate.of(2024, 12, 31), 3L);
+        perDay.put(LocalDate.of(2025, 1, 1), 4L);
+        perDay.put(LocalDate.of(2025, 1, 6), 1L);
+
+        List<TimeSeriesPoint> series =
+                service.getBookingSeries(LocalDate.of(2024, 12, 25), LocalDate.of(2025, 1, 8), "week");
+
+        assertEquals(List.of(LocalDate.of(2024, 12, 23), LocalDate.of(2024, 12, 30), LocalDate.of(2025, 1, 6)),
+                starts(series));
+        assertEquals(List.of(2L, 7L, 1L), counts(series));
+    }
+
+    @Test
+    void monthsAcrossTheYearBoundaryIncludeTheLastDay() {
+        perDay.put(LocalDate.of(2024, 11, 20), 1L);
+        perDay.put(LocalDate.of(2024, 12, 31), 2L);
+        perDay.put(LocalDate.of(2025, 1, 1), 3L);
+        perDay.put(LocalDate.of(2025, 1, 31), 4L);
+        perDay.put(LocalDate.of(2025, 2, 10), 5L);
+        perDay.put(LocalDate.of(2025, 2, 11), 6L); // after to: not counted
+
+        List<TimeSeriesPoint> series =
+                service.getBookingSeries(LocalDate.of(2024, 11, 15), LocalDate.of(2025, 2, 10), "month");
+
+        assertEquals(List.of(LocalDate.of(2024, 11, 1), LocalDate.of(2024, 12, 1), LocalDate.of(2025, 1, 1),
+                LocalDate.of(2025, 2, 1)), starts(series));
+        assertEquals(List.of(1L, 2L, 7L, 5L), counts(series));
+    }
+
+    @Test
+    void longRangesAreQueriedInChunksAndMergedWithoutGapsOrOverlap() {
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        LocalDate to = LocalDate.of(2025, 12, 31);
+        for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) perDay.put(d, (long) d.getDayOfYear());
+
+        List<TimeSeriesPoint> series = service.getBookingSeries(from, to, "day");
+
+        assertEquals(365, series.size());
+        for (TimeSeriesPoint point : series) {
+            assertEquals(point.getStart().getDayOfYear(), point.getCount(), point.getStart().toString());
+        }
+
+        // 92 + 92 + 92 + 89 days, each chunk starting where the previous one ended
+        verify(rollupRepo).sumPerDay(from, from.plusDays(92));
+        verify(rollupRepo).sumPerDay(from.plusDays(92), from.plusDays(184));
+        verify(rollupRepo).sumPerDay(from.plusDays(184), from.plusDays(276));
+        verify(rollupRepo).sumPerDay(from.plusDays(276), to.plusDays(1));
+        verify(rollupRepo, times(4)).sumPerDay(any(), any());
+    }
+
+    @Test
+    void bucketsWithoutBookingsAreZero() {
+        List<TimeSeriesPoint> months =
+                service.getBookingSeries(LocalDate.of(2025, 1, 10), LocalDate.of(2025, 3, 5), "month");
+        assertEquals(List.of(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 2, 1), LocalDate.of(2025, 3, 1)),
+                starts(months));
+        assertEquals(List.of(0L, 0L, 0L), counts(months));
+
+        perDay.put(LocalDate.of(2025, 3, 2), 4L);
+        List<TimeSeriesPoint> days =
+                service.getBookingSeries(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 4), "day");
+        assertEquals(List.of(0L, 4L, 0L, 0L), counts(days));
+        verify(rollupRepo).sumPerDay(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 5));
+    }
+}
@@ -0,0 +1,118 @@
+package infosys.backend.service;
+
+import infosys.backend.MySqlContainerTest;
+import infosys.backend.dto.ChatNotificationDTO;
+import infosys.backend.dto.MessageDTO;
+import infosys.backend.enums.Role;
+import infosys.backend.model.User;
+import infosys.backend.service.ChatUserDirectory.ChatUser;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+/**
+ * A message the database rejects costs only itself: the batch is split until it is found, the
+ * sender gets a failure event for it, and every other message is stored, delivered and
+ * notified in send order.
+ *
+ * The long flush interval makes all submitted messages land in one batch.
+ */
+@TestPropertySource(properties = "chat.pipeline.flush-interval-ms=500")
+class ChatMessagePipelineTest extends MySqlContainerTest {
+
+    private static final int MESSAGES = 9;
+    private static final int POISON = 4;
+    private static final long WAIT_MS = 15_000;
+
+    @Autowired
+    private ChatMessagePipeline pipeline;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoSpyBean
+    private SimpMessagingTemplate messagingTemplate;
+
+    private static ChatUser chatUser(User user) {
+        return new ChatUser(user.getId(), user.getName(), user.getEmail());
+    }
+
+    private long stat(String name) {
+        return ((Number) pipeline.stats().get(name)).longValue();
+    }
+
+    @Test
+    void aPoisonMessageIsDroppedAloneAndTheRestIsStoredInSendOrder() {
+        ChatUser sender = chatUser(seedUser(Role.CUSTOMER));
+        ChatUser receiver = chatUser(seedUser(Role.PROVIDER));
+        ChatUser missing = new ChatUser(-1L, "Nobody", "nobody@seeded.test"); // violates the receiver FK
+        long storedBefore = stat("stored");
+        long droppedBefore = stat("dropped");
+
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < MESSAGES; i++) {
+            String content = "message " + i;
+            ChatUser to = i == POISON ? missing : receiver;
+            assertTrue(pipeline.submit(sender, to, content, start.plusSeconds(i), "client-" + i, true));
+            if (i != POISON) expected.add(content);
+        }
+
+        // Deliveries and pushes happen after each commit, so waiting for the last one waits for storage
+        ArgumentCaptor<Object> delivered = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate, timeout(WAIT_MS).times(MESSAGES - 1))
+                .convertAndSendToUser(eq(receiver.email()), eq("/queue/messages"), delivered.capture());
+        ArgumentCaptor<Object> pushed = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate, timeout(WAIT_MS).times(MESSAGES - 1))
+                .convertAndSendToUser(eq(receiver.email()), eq("/queue/notifications"), pushed.capture());
+        ArgumentCaptor<Object> failed = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate, timeout(WAIT_MS))
+                .convertAndSendToUser(eq(sender.email()), eq("/queue/message-errors"), failed.capture());
+
+        assertEquals(MESSAGES - 1, stat("stored") - storedBefore);
+        assertEquals(1, stat("dropped") - droppedBefore);
+        Map<?, ?> failure = (Map<?, ?>) failed.getValue();
+        assertEquals("client-" + POISON, failure.get("clientMessageId"));
+        assertEquals("not stored", failure.get("reason"));
+
+        // Stored in send order: ids ascend with the send sequence
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT id, content FROM message WHERE sender_id = ? ORDER BY id", sender.id());
+        assertEquals(expected, rows.stream().map(r -> (String) r.get("content")).toList());
+
+        // Delivered in the same order, with the stored ids
+        List<MessageDTO> messages = delivered.getAllValues().stream().map(MessageDTO.class::cast).toList();
+        for (int i = 0; i < rows.size(); i++) {
+            assertEquals(((Number) rows.get(i).get("id")).longValue(), messages.get(i).getId());
+            assertEquals(expected.get(i), messages.get(i).getContent());
+        }
+
+        // Each pushed notification id is the row holding that message's content
+        List<ChatNotificationDTO> notifications =
+                pushed.getAllValues().stream().map(ChatNotificationDTO.class::cast).toList();
+        assertEquals(expected, notifications.stream().map(ChatNotificationDTO::getMessageContent).toList());
+        for (ChatNotificationDTO n : notifications) {
+            assertEquals(n.getMessageContent(), jdbcTemplate.queryForObject(
+                    "SELECT message_content FROM chat_notifications WHERE id = ? AND receiver_id = ?",
+                    String.class, n.getId(), receiver.id()));
+        }
+        assertEquals(MESSAGES - 1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM chat_notifications WHERE sender_id = ?", Integer.class, sender.id()));
+    }
+}
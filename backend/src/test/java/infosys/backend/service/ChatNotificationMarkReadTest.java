@@ -0,0 +1,101 @@
+package infosys.backend.service;
+
+import infosys.backend.MySqlContainerTest;
+import infosys.backend.enums.Role;
+import infosys.backend.model.User;
+import infosys.backend.repository.ChatNotificationRepository;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Marking notifications read is a fixed number of bulk UPDATEs: the statement count is the
+ * same for a receiver with ten unread notifications and one with thousands.
+ */
+class ChatNotificationMarkReadTest extends MySqlContainerTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ChatNotificationMarkReadTest.class);
+
+    private static final int FEW = 10;
+    private static final int MANY = 5_000;
+
+    @Autowired
+    private ChatNotificationService notificationService;
+
+    @Autowired
+    private ChatNotificationRepository notificationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Plain JDBC batch, so seeding stays out of the Hibernate statistics
+    private void seedUnread(User sender, User receiver, int count) {
+        LocalDateTime start = LocalDateTime.now().minusDays(1);
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Timestamp at = Timestamp.valueOf(start.plusSeconds(i));
+            rows.add(new Object[] {sender.getId(), receiver.getId(), "message " + i, at, at});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO chat_notifications " +
+                "(sender_id, receiver_id, message_content, sent_at, is_read, created_at) " +
+                "VALUES (?, ?, ?, ?, FALSE, ?)", rows);
+    }
+
+    @Test
+    void markAllAsReadCostsTheSameForFewAndManyNotifications() throws Throwable {
+        User sender = seedUser(Role.CUSTOMER);
+        User light = seedUser(Role.CUSTOMER);
+        User heavy = seedUser(Role.CUSTOMER);
+        seedUnread(sender, light, FEW);
+        seedUnread(sender, heavy, MANY);
+
+        int[] updated = new int[1];
+
+        long start = System.nanoTime();
+        long fewStatements = statementsFor(() -> updated[0] = notificationService.markAllAsRead(light));
+        long fewMillis = (System.nanoTime() - start) / 1_000_000;
+        assertEquals(FEW, updated[0]);
+
+        start = System.nanoTime();
+        long manyStatements = statementsFor(() -> updated[0] = notificationService.markAllAsRead(heavy));
+        long manyMillis = (System.nanoTime() - start) / 1_000_000;
+        assertEquals(MANY, updated[0]);
+
+        // One UPDATE on chat_notifications, one on the conversation summaries
+        assertEquals(2, fewStatements);
+        assertEquals(fewStatements, manyStatements);
+        assertEquals(0, notificationRepository.countByReceiverAndIsReadFalse(heavy));
+        log.info("markAllAsRead: {} rows in {} ms, {} rows in {} ms", FEW, fewMillis, MANY, manyMillis);
+
+        // Nothing left to update: still the same statements, no rows touched
+        assertEquals(2, statementsFor(() -> updated[0] = notificationService.markAllAsRead(heavy)));
+        assertEquals(0, updated[0]);
+    }
+
+    @Test
+    void markAllFromSenderOnlyTouchesThatSendersUnreadRows() throws Throwable {
+        User sender = seedUser(Role.CUSTOMER);
+        User other = seedUser(Role.CUSTOMER);
+        User receiver = seedUser(Role.CUSTOMER);
+        seedUnread(sender, receiver, MANY);
+        seedUnread(other, receiver, FEW);
+
+        int[] updated = new int[1];
+        long statements = statementsFor(() ->
+                updated[0] = notificationService.markAllFromSenderAsRead(receiver, sender.getId()));
+
+        // Sender existence check, the notification UPDATE and the summary UPDATE
+        assertEquals(3, statements);
+        assertEquals(MANY, updated[0]);
+        assertEquals(FEW, notificationRepository.countByReceiverAndIsReadFalse(receiver));
+    }
+}
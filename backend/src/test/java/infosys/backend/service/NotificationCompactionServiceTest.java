@@ -0,0 +1,100 @@
+package infosys.backend.service;
+
+import infosys.backend.MySqlContainerTest;
+import infosys.backend.enums.Role;
+import infosys.backend.model.User;
+import infosys.backend.repository.ChatNotificationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compaction against the real schema: an old unread burst collapses into its newest row with
+ * the right collapsed_count, recent and small groups are left alone, old read rows are purged,
+ * and the cached unread count still matches the table.
+ */
+class NotificationCompactionServiceTest extends MySqlContainerTest {
+
+    private static final int BURST = 5;
+
+    @Autowired
+    private NotificationCompactionService compactionService;
+
+    @Autowired
+    private UnreadNotificationCounters unreadCounters;
+
+    @Autowired
+    private ChatNotificationRepository notificationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Plain JDBC, so sent_at can lie in the past
+    private void seed(User sender, User receiver, int count, LocalDateTime sentAt, boolean read) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Timestamp at = Timestamp.valueOf(sentAt.plusSeconds(i));
+            rows.add(new Object[] {sender.getId(), receiver.getId(), "message " + i, at, read, at});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO chat_notifications " +
+                "(sender_id, receiver_id, message_content, sent_at, is_read, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    private List<Map<String, Object>> unread(User sender, User receiver) {
+        return jdbcTemplate.queryForList("SELECT id, collapsed_count FROM chat_notifications " +
+                "WHERE sender_id = ? AND receiver_id = ? AND is_read = FALSE ORDER BY id",
+                sender.getId(), receiver.getId());
+    }
+
+    @Test
+    void anOldBurstCollapsesIntoItsNewestRowAndCountsStayInStep() {
+        User sender = seedUser(Role.CUSTOMER);
+        User quiet = seedUser(Role.CUSTOMER);
+        User receiver = seedUser(Role.PROVIDER);
+        LocalDateTime twoHoursAgo = LocalDateTime.now().minusHours(2);
+
+        seed(sender, receiver, BURST, twoHoursAgo, false);
+        seed(sender, receiver, 2, LocalDateTime.now().minusMinutes(5), false); // too recent to collapse
+        seed(quiet, receiver, 2, twoHoursAgo, false);                         // below min-burst
+        seed(sender, receiver, 3, LocalDateTime.now().minusDays(40), true);   // past retention
+
+        List<Map<String, Object>> before = unread(sender, receiver);
+        long keepId = ((Number) before.get(BURST - 1).get("id")).longValue();
+        assertEquals(BURST + 4, unreadCounters.get(receiver)); // loads the counter
+
+        compactionService.collapseBursts();
+
+        List<Map<String, Object>> after = unread(sender, receiver);
+        assertEquals(3, after.size());
+        assertEquals(keepId, ((Number) after.get(0).get("id")).longValue());
+        assertEquals(BURST, ((Number) after.get(0).get("collapsed_count")).intValue());
+        assertEquals(1, ((Number) after.get(1).get("collapsed_count")).intValue());
+        assertEquals(2, unread(quiet, receiver).size());
+
+        // Fewer rows, same number of messages behind them
+        long rows = notificationRepository.countByReceiverAndIsReadFalse(receiver);
+        assertEquals(5, rows);
+        assertEquals(rows, unreadCounters.get(receiver));
+        assertEquals(BURST + 4, jdbcTemplate.queryForObject("SELECT SUM(collapsed_count) FROM chat_notifications " +
+                "WHERE receiver_id = ? AND is_read = FALSE", Integer.class, receiver.getId()));
+
+        // A second run finds nothing left to collapse for this pair
+        compactionService.collapseBursts();
+        assertEquals(after, unread(sender, receiver));
+        assertEquals(rows, unreadCounters.get(receiver));
+
+        compactionService.purgeRead();
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM chat_notifications " +
+                "WHERE receiver_id = ? AND is_read = TRUE", Integer.class, receiver.getId()));
+        assertEquals(rows, notificationRepository.countByReceiverAndIsReadFalse(receiver));
+    }
+}
@@ -0,0 +1,76 @@
+package infosys.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NotificationDedupWindowTest {
+
+    @Test
+    void repeatedContentIsADuplicate() {
+        NotificationDedupWindow window = new NotificationDedupWindow(60, 100);
+
+        assertTrue(window.firstSeen(1L, 2L, "hello", null));
+        assertFalse(window.firstSeen(1L, 2L, "hello", null));
+        assertTrue(window.firstSeen(1L, 2L, "hello again", null));
+        assertTrue(window.firstSeen(2L, 1L, "hello", null));
+        assertEquals(1, window.duplicates());
+    }
+
+    @Test
+    void clientMessageIdTakesPrecedenceOverContent() {
+        NotificationDedupWindow window = new NotificationDedupWindow(60, 100);
+
+        assertTrue(window.firstSeen(1L, 2L, "ok", "c-1"));
+        assertTrue(window.firstSeen(1L, 2L, "ok", "c-2"));
+        assertFalse(window.firstSeen(1L, 2L, "edited", "c-1"));
+        // A client id equal to some content still does not collide with the content key
+        assertTrue(window.firstSeen(1L, 2L, "c-1", null));
+        assertTrue(window.firstSeen(1L, 2L, "ok", " "));
+    }
+
+    @Test
+    void forgetLetsARejectedMessageBeResent() {
+        NotificationDedupWindow window = new NotificationDedupWindow(60, 100);
+
+        // Nothing recorded yet: forget must not touch the empty placeholder buckets
+        window.forget(1L, 2L, "hello", null);
+
+        assertTrue(window.firstSeen(1L, 2L, "hello", null));
+        window.forget(1L, 2L, "hello", null);
+        assertTrue(window.firstSeen(1L, 2L, "hello", null));
+        assertEquals(0, window.duplicates());
+    }
+
+    @Test
+    void keysExpireAfterTwoWindows() throws InterruptedException {
+        NotificationDedupWindow window = new NotificationDedupWindow(1, 100);
+
+        assertTrue(window.firstSeen(1L, 2L, "hello", null));
+        sleepIntoNextWindow();
+        // Previous bucket still remembers the key
+        assertFalse(window.firstSeen(1L, 2L, "hello", null));
+
+        sleepIntoNextWindow();
+        sleepIntoNextWindow();
+        assertTrue(window.firstSeen(1L, 2L, "hello", null));
+    }
+
+    @Test
+    void fullBucketLetsNewKeysThrough() {
+        NotificationDedupWindow window = new NotificationDedupWindow(60, 2);
+
+        assertTrue(window.firstSeen(1L, 2L, "a", null));
+        assertTrue(window.firstSeen(1L, 2L, "b", null));
+        assertTrue(window.firstSeen(1L, 2L, "c", null));
+        assertTrue(window.firstSeen(1L, 2L, "c", null), "unrecorded once the bucket is full");
+        assertFalse(window.firstSeen(1L, 2L, "a", null));
+    }
+
+    // Sleeps past the next whole-second boundary, i.e. into the next 1 s bucket
+    private static void sleepIntoNextWindow() throws InterruptedException {
+        Thread.sleep(1000 - System.currentTimeMillis() % 1000 + 20);
+    }
+}
@@ -0,0 +1,55 @@
+package infosys.backend.service;
+
+import infosys.backend.service.ServiceProviderService.PageCursor;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PageCursorTest {
+
+    private static String encoded(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void roundTripsPriceAndId() {
+        PageCursor cursor = new PageCursor(new BigDecimal("1499.50"), 42);
+
+        PageCursor decoded = PageCursor.decode(cursor.encode());
+
+        assertEquals(cursor, decoded);
+        assertEquals(0, new BigDecimal("1499.50").compareTo(decoded.price()));
+    }
+
+    @Test
+    void encodingIsUrlSafeAndPlain() {
+        // toPlainString keeps large prices out of scientific notation
+        PageCursor cursor = new PageCursor(new BigDecimal("1E+7"), Long.MAX_VALUE);
+
+        String encoded = cursor.encode();
+
+        assertFalse(encoded.contains("=") || encoded.contains("+") || encoded.contains("/"));
+        assertEquals(encoded("10000000|" + Long.MAX_VALUE), encoded);
+    }
+
+    @Test
+    void blankCursorMeansFirstPage() {
+        assertNull(PageCursor.decode(null));
+        assertNull(PageCursor.decode(" "));
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        for (String cursor : new String[] {"%%%", encoded("12.5"), encoded("abc|1"), encoded("12.5|x"), encoded("1|2|3")}) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(cursor));
+            assertEquals("Invalid cursor", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package infosys.backend.service;
+
+import infosys.backend.dto.RatingStatsResponse;
+import infosys.backend.repository.ReviewRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RatingStatsTest {
+
+    private final ReviewRepository reviewRepository = mock(ReviewRepository.class);
+    private final RatingStats stats = new RatingStats(reviewRepository, 5);
+
+    private static Object[] row(long providerId, long serviceId, int rating, long count) {
+        return new Object[] {providerId, serviceId, rating, count};
+    }
+
+    @Test
+    void percentilesFollowTheHistogram() {
+        // No transaction is active here, so record applies immediately
+        stats.record(1L, 10L, 1, 1);
+        stats.record(1L, 10L, 3, 2);
+        stats.record(1L, 10L, 4, 3);
+        stats.record(1L, 10L, 5, 4);
+
+        RatingStatsResponse response = stats.forService(10L);
+
+        assertEquals(10, response.getCount());
+        assertEquals(3.9, response.getAverage(), 1e-9);
+        assertArrayEquals(new long[] {1, 0, 2, 3, 4}, response.getHistogram());
+        assertEquals(3, response.getP25());
+        assertEquals(4, response.getMedian());
+        assertEquals(5, response.getP75());
+    }
+
+    @Test
+    void emptyEntityHasZeroPercentiles() {
+        RatingStatsResponse response = stats.forProvider(99L);
+
+        assertEquals(0, response.getCount());
+        assertEquals(0, response.getMedian());
+        assertEquals(3.0, response.getBayesianScore(), 1e-9);
+    }
+
+    @Test
+    void fewReviewsShrinkTowardsTheGlobalMean() {
+        stats.record(1L, 10L, 5, 2);     // two 5-star reviews
+        stats.record(2L, 20L, 5, 80);    // a hundred reviews averaging 4.8
+        stats.record(2L, 20L, 4, 20);
+        stats.record(3L, 30L, 1, 100);
+
+        assertTrue(stats.serviceScore(20L) > stats.serviceScore(10L));
+        assertEquals(stats.forService(20L).getBayesianScore(), stats.serviceScore(20L), 1e-9);
+    }
+
+    @Test
+    void removalsUpdateProviderAndTotals() {
+        stats.record(1L, 10L, 4, 3);
+        stats.record(1L, 11L, 2, 1);
+
+        stats.record(1L, 10L, 4, -1);
+        assertEquals(3, stats.forProvider(1L).getCount());
+
+        stats.removeService(11L, 1L);
+        assertEquals(2, stats.forProvider(1L).getCount());
+        assertEquals(0, stats.forService(11L).getCount());
+        assertEquals(2, stats.totalReviews());
+
+        stats.removeProvider(1L);
+        assertEquals(0, stats.forProvider(1L).getCount());
+    }
+
+    @Test
+    void reloadReplacesStateFromTheTable() {
+        stats.record(7L, 70L, 1, 5);
+        when(reviewRepository.streamRatingCounts()).thenReturn(Stream.of(
+                row(1L, 10L, 5, 2),
+                row(1L, 11L, 3, 1)));
+
+        stats.reload();
+
+        assertEquals(0, stats.forProvider(7L).getCount());
+        assertEquals(3, stats.forProvider(1L).getCount());
+        assertEquals(2, stats.forService(10L).getCount());
+        assertEquals(3, stats.totalReviews());
+    }
+
+    @Test
+    void updatesDuringReloadAreNotLost() {
+        // A review recorded while the table is being read must survive the state swap
+        when(reviewRepository.streamRatingCounts()).thenAnswer(invocation -> Stream.of(
+                        row(1L, 10L, 5, 2),
+                        row(1L, 10L, 4, 1))
+                .peek(r -> {
+                    if (((Number) r[2]).intValue() == 5) stats.record(2L, 20L, 3, 1);
+                }));
+
+        stats.reload();
+
+        assertEquals(3, stats.forService(10L).getCount());
+        assertEquals(1, stats.forService(20L).getCount());
+        assertEquals(4, stats.totalReviews());
+    }
+}
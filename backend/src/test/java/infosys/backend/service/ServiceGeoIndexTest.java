@@ -0,0 +1,106 @@
+package infosys.backend.service;
+
+import infosys.backend.model.ServiceProvider;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ServiceGeoIndexTest {
+
+    private static ServiceProvider service(long id, String category, Double lat, Double lon) {
+        return ServiceProvider.builder()
+                .id(id)
+                .category(category)
+                .latitude(lat)
+                .longitude(lon)
+                .build();
+    }
+
+    private static List<Long> ids(List<ServiceGeoIndex.Hit> hits) {
+        return hits.stream().map(ServiceGeoIndex.Hit::serviceId).toList();
+    }
+
+    @Test
+    void haversineMatchesKnownDistance() {
+        // Mumbai → Pune is roughly 120 km as the crow flies
+        double km = ServiceGeoIndex.haversineKm(19.0760, 72.8777, 18.5204, 73.8567);
+        assertTrue(km > 115 && km < 125, "was " + km);
+        assertEquals(0.0, ServiceGeoIndex.haversineKm(10, 20, 10, 20), 1e-9);
+    }
+
+    @Test
+    void returnsNearestFirstWithinRadius() {
+        ServiceGeoIndex index = new ServiceGeoIndex();
+        index.rebuild(List.of(
+                service(1, "Plumber", 19.0760, 72.8777),   // Mumbai
+                service(2, "Plumber", 19.2183, 72.9781),   // Thane, ~20 km
+                service(3, "Plumber", 18.5204, 73.8567),   // Pune, ~120 km
+                service(4, "Plumber", null, null)));       // no coordinates, not indexed
+
+        assertEquals(3, index.size());
+        assertEquals(List.of(1L, 2L), ids(index.nearest(19.0760, 72.8777, 50, null, 10)));
+        assertEquals(List.of(1L, 2L, 3L), ids(index.nearest(19.0760, 72.8777, 200, null, 10)));
+        assertEquals(List.of(1L), ids(index.nearest(19.0760, 72.8777, 200, null, 1)));
+    }
+
+    @Test
+    void filtersByCategoryIgnoringCase() {
+        ServiceGeoIndex index = new ServiceGeoIndex();
+        index.rebuild(List.of(
+                service(1, "Plumber", 12.9716, 77.5946),
+                service(2, "Electrician", 12.9720, 77.5950)));
+
+        assertEquals(List.of(2L), ids(index.nearest(12.9716, 77.5946, 5, "electrician", 10)));
+    }
+
+    @Test
+    void indexMovesAndDropsServices() {
+        ServiceGeoIndex index = new ServiceGeoIndex();
+        index.rebuild(List.of(service(1, "Plumber", 28.6139, 77.2090)));   // Delhi
+
+        index.index(service(1, "Plumber", 13.0827, 80.2707));              // moved to Chennai
+        assertEquals(List.of(), index.nearest(28.6139, 77.2090, 50, null, 10));
+        assertEquals(List.of(1L), ids(index.nearest(13.0827, 80.2707, 50, null, 10)));
+
+        index.index(service(1, "Plumber", null, null));                    // coordinates cleared
+        assertEquals(0, index.size());
+
+        index.index(service(2, "Plumber", 13.0827, 80.2707));
+        // No transaction is active here, so remove applies immediately
+        index.remove(2L);
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void agreesWithBruteForce() {
+        Random random = new Random(42);
+        List<ServiceProvider> services = new ArrayList<>();
+        for (long id = 1; id <= 2000; id++) {
+            services.add(service(id, "Plumber", 18 + random.nextDouble() * 2, 72 + random.nextDouble() * 2));
+        }
+        ServiceGeoIndex index = new ServiceGeoIndex();
+        index.rebuild(services);
+
+        for (int q = 0; q < 20; q++) {
+            double lat = 18 + random.nextDouble() * 2;
+            double lon = 72 + random.nextDouble() * 2;
+            double radiusKm = 5 + random.nextDouble() * 60;
+
+            List<Long> expected = services.stream()
+                    .filter(s -> ServiceGeoIndex.haversineKm(lat, lon, s.getLatitude(), s.getLongitude()) <= radiusKm)
+                    .sorted(Comparator.comparingDouble(
+                            s -> ServiceGeoIndex.haversineKm(lat, lon, s.getLatitude(), s.getLongitude())))
+                    .limit(15)
+                    .map(ServiceProvider::getId)
+                    .toList();
+
+            assertEquals(expected, ids(index.nearest(lat, lon, radiusKm, null, 15)));
+        }
+    }
+}
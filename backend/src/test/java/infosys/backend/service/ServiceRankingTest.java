@@ -0,0 +1,143 @@
+package infosys.backend.service;
+
+import infosys.backend.dto.TopServiceResponse;
+import infosys.backend.model.ServiceProvider;
+import infosys.backend.model.User;
+import infosys.backend.repository.BookingRepository;
+import infosys.backend.repository.ReviewRepository;
+import infosys.backend.repository.ServiceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ServiceRankingTest {
+
+    private final ServiceRepository serviceRepository = mock(ServiceRepository.class);
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final RatingStats ratingStats = new RatingStats(mock(ReviewRepository.class), 5);
+
+    private final User alice = User.builder().id(1L).name("Alice").build();
+    private final User bob = User.builder().id(2L).name("Bob").build();
+
+    private final List<ServiceProvider> services = new ArrayList<>();
+    private final List<Object[]> bookings = new ArrayList<>();
+
+    private ServiceRanking ranking;
+
+    @BeforeEach
+    void setUp() {
+        ranking = new ServiceRanking(serviceRepository, bookingRepository, ratingStats, 30);
+        when(serviceRepository.findAllWithProvider()).thenAnswer(invocation -> services);
+        when(bookingRepository.streamCountedBookings(any(), any())).thenAnswer(invocation -> bookings.stream());
+    }
+
+    private ServiceProvider service(long id, User provider, String category) {
+        ServiceProvider service = ServiceProvider.builder()
+                .id(id)
+                .provider(provider)
+                .category(category)
+                .price(BigDecimal.TEN)
+                .build();
+        services.add(service);
+        return service;
+    }
+
+    private void booked(long serviceId, int count, LocalDateTime at) {
+        for (int i = 0; i < count; i++) bookings.add(new Object[] {serviceId, at});
+    }
+
+    private static List<Long> ids(List<TopServiceResponse> top) {
+        return top.stream().map(t -> t.getService().getId()).toList();
+    }
+
+    @Test
+    void ordersByBookingsWithinAndAcrossCategories() {
+        LocalDateTime now = LocalDateTime.now();
+        service(10, alice, "Plumber");
+        service(11, alice, "Plumber");
+        service(20, bob, "Electrician");
+        booked(10, 3, now);
+        booked(11, 1, now);
+        booked(20, 2, now);
+
+        ranking.rebuild();
+
+        assertEquals(List.of(10L, 11L), ids(ranking.top("plumber", 10)));
+        assertEquals(List.of(10L, 20L, 11L), ids(ranking.top(null, 10)));
+        assertEquals(List.of(10L), ids(ranking.top(" PLUMBER ", 1)));
+        assertEquals(List.of(), ranking.top("Painter", 10));
+        assertEquals(List.of(), ranking.top("plumber", -1));
+    }
+
+    @Test
+    void olderBookingsWeighLess() {
+        LocalDateTime now = LocalDateTime.now();
+        service(10, alice, "Plumber");
+        service(11, alice, "Plumber");
+        booked(10, 3, now.minusDays(90));    // three half-lives: 3 / 8 of a booking
+        booked(11, 1, now);
+
+        ranking.rebuild();
+
+        List<TopServiceResponse> top = ranking.top("plumber", 10);
+        assertEquals(List.of(11L, 10L), ids(top));
+        // No ratings yet: the Bayesian score is the 3.0 prior, so one booking today scores 0.6
+        assertEquals(0.6, top.get(0).getScore(), 0.01);
+    }
+
+    @Test
+    void ratingsBreakBookingTies() {
+        LocalDateTime now = LocalDateTime.now();
+        service(10, alice, "Plumber");
+        service(11, alice, "Plumber");
+        booked(10, 2, now);
+        booked(11, 2, now);
+        ranking.rebuild();
+
+        // No transaction is active here, so these apply immediately and notify the ranking
+        ratingStats.record(1L, 10L, 1, 10);
+        ratingStats.record(1L, 11L, 5, 10);
+
+        List<TopServiceResponse> top = ranking.top("plumber", 10);
+        assertEquals(List.of(11L, 10L), ids(top));
+        assertEquals(10, top.get(0).getService().getRatingCount());
+        assertEquals(5.0, top.get(0).getService().getAverageRating(), 1e-9);
+    }
+
+    @Test
+    void eventsUpdateSingleEntries() {
+        LocalDateTime now = LocalDateTime.now();
+        service(10, alice, "Plumber");
+        service(11, bob, "Plumber");
+        booked(10, 3, now);
+        booked(11, 1, now);
+        ranking.rebuild();
+
+        for (int i = 0; i < 5; i++) ranking.bookingChanged(11L, now, 1);
+        assertEquals(List.of(11L, 10L), ids(ranking.top("plumber", 10)));
+
+        ServiceProvider moved = ServiceProvider.builder()
+                .id(10L).provider(alice).category("Electrician").price(BigDecimal.ONE).build();
+        ranking.serviceSaved(moved);
+        assertEquals(List.of(11L), ids(ranking.top("plumber", 10)));
+        assertEquals(List.of(10L), ids(ranking.top("electrician", 10)));
+        assertTrue(ranking.top("electrician", 10).get(0).getScore() > 0, "bookings survive an edit");
+
+        ranking.providerRenamed(2L, "Robert");
+        assertEquals("Robert", ranking.top("plumber", 10).get(0).getService().getProviderName());
+
+        ranking.serviceDeleted(11L);
+        assertEquals(List.of(), ranking.top("plumber", 10));
+        assertEquals(List.of(10L), ids(ranking.top(null, 10)));
+    }
+}
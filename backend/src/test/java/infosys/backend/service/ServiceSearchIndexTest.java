@@ -0,0 +1,92 @@
+package infosys.backend.service;
+
+import infosys.backend.model.ServiceProvider;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ServiceSearchIndexTest {
+
+    private static ServiceProvider service(long id, String category, String description, String location) {
+        return ServiceProvider.builder()
+                .id(id)
+                .category(category)
+                .description(description)
+                .location(location)
+                .build();
+    }
+
+    private static List<Long> ids(List<ServiceSearchIndex.Hit> hits) {
+        return hits.stream().map(ServiceSearchIndex.Hit::serviceId).toList();
+    }
+
+    @Test
+    void tokenizesLowercaseAlphanumericRuns() {
+        assertEquals(List.of("ac", "repair", "24x7"), ServiceSearchIndex.tokenize("AC-Repair, 24x7 & a"));
+        assertEquals(List.of(), ServiceSearchIndex.tokenize("  "));
+    }
+
+    @Test
+    void ranksByTermFrequencyAndDocumentLength() {
+        ServiceSearchIndex index = new ServiceSearchIndex();
+        index.rebuild(List.of(
+                service(1, "Plumber", "pipe repair", "Pune"),
+                service(2, "Plumber", "pipe pipe pipe leaks", "Pune"),
+                service(3, "Plumber", "pipe fitting for bathrooms kitchens gardens and many other places", "Pune"),
+                service(4, "Electrician", "wiring", "Pune")));
+
+        List<ServiceSearchIndex.Hit> hits = index.search("pipe", 10);
+
+        assertEquals(List.of(2L, 1L, 3L), ids(hits));
+        assertTrue(hits.get(0).score() > hits.get(1).score());
+        assertTrue(hits.get(1).score() > hits.get(2).score());
+    }
+
+    @Test
+    void rareTermsOutweighCommonOnes() {
+        ServiceSearchIndex index = new ServiceSearchIndex();
+        index.rebuild(List.of(
+                service(1, "Cleaning", "home cleaning", "Delhi"),
+                service(2, "Cleaning", "home cleaning sofa", "Delhi"),
+                service(3, "Cleaning", "office cleaning", "Delhi"),
+                service(4, "Cleaning", "car cleaning", "Delhi")));
+
+        assertEquals(2L, index.search("cleaning sofa", 1).get(0).serviceId());
+        assertEquals(1, index.search("cleaning sofa", 1).size());
+    }
+
+    @Test
+    void reindexAndRemoveReplaceOldPostings() {
+        ServiceSearchIndex index = new ServiceSearchIndex();
+        index.rebuild(List.of(service(1, "Painter", "wall painting", "Mumbai")));
+
+        index.index(service(1, "Carpenter", "furniture", "Mumbai"));
+        assertEquals(List.of(), index.search("painting", 10));
+        assertEquals(List.of(1L), ids(index.search("furniture", 10)));
+
+        // No transaction is active here, so remove applies immediately
+        index.remove(1L);
+        assertEquals(List.of(), index.search("furniture", 10));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void compactionKeepsLiveDocuments() {
+        ServiceSearchIndex index = new ServiceSearchIndex();
+        index.rebuild(List.of(
+                service(1, "Plumber", "pipe repair", "Pune"),
+                service(2, "Electrician", "wiring", "Pune")));
+
+        // Enough updates to push the tombstones past the compaction threshold
+        for (int i = 0; i < 200; i++) {
+            index.index(service(2, "Electrician", "wiring round " + i, "Pune"));
+        }
+
+        assertEquals(2, index.size());
+        assertEquals(List.of(1L), ids(index.search("pipe", 10)));
+        assertEquals(List.of(2L), ids(index.search("wiring", 10)));
+    }
+}
@@ -0,0 +1,111 @@
+package infosys.backend.service;
+
+import infosys.backend.model.User;
+import infosys.backend.repository.ChatNotificationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UnreadNotificationCountersTest {
+
+    private final ChatNotificationRepository repository = mock(ChatNotificationRepository.class);
+    private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+
+    private static User user(long id) {
+        return User.builder().id(id).email("User" + id + "@Example.com").build();
+    }
+
+    @Test
+    void loadsOnceAndServesFromMemory() {
+        UnreadNotificationCounters counters = new UnreadNotificationCounters(repository, messagingTemplate, 100, 10);
+        User user = user(1);
+        when(repository.countByReceiverAndIsReadFalse(user)).thenReturn(4L);
+
+        assertEquals(4, counters.get(user));
+        assertEquals(4, counters.get(user));
+
+        verify(repository, times(1)).countByReceiverAndIsReadFalse(user);
+    }
+
+    @Test
+    void changesArePushedToTheLowercasedUser() {
+        UnreadNotificationCounters counters = new UnreadNotificationCounters(repository, messagingTemplate, 100, 10);
+        User user = user(1);
+        when(repository.countByReceiverAndIsReadFalse(user)).thenReturn(2L);
+        counters.get(user);
+
+        counters.add(1L, user.getEmail(), 3);
+        assertEquals(5, counters.get(user));
+        verify(messagingTemplate).convertAndSendToUser("user1@example.com", "/queue/notification-count",
+                Map.of("count", 5L));
+
+        counters.add(1L, user.getEmail(), -10);
+        assertEquals(0, counters.get(user), "never below zero");
+
+        counters.reset(1L, user.getEmail());
+        verify(messagingTemplate, times(2)).convertAndSendToUser("user1@example.com", "/queue/notification-count",
+                Map.of("count", 0L));
+    }
+
+    @Test
+    void unloadedCountersAreSkipped() {
+        UnreadNotificationCounters counters = new UnreadNotificationCounters(repository, messagingTemplate, 100, 10);
+
+        counters.add(1L, "user1@example.com", 1);
+        counters.reset(1L, "user1@example.com");
+
+        verify(messagingTemplate, never()).convertAndSendToUser(anyString(), anyString(), any(Object.class));
+    }
+
+    @Test
+    void failedPushDoesNotLoseTheChange() {
+        UnreadNotificationCounters counters = new UnreadNotificationCounters(repository, messagingTemplate, 100, 10);
+        User user = user(1);
+        when(repository.countByReceiverAndIsReadFalse(user)).thenReturn(0L);
+        counters.get(user);
+        doThrow(new MessagingException("broker down"))
+                .when(messagingTemplate).convertAndSendToUser(anyString(), anyString(), any(Object.class));
+
+        counters.add(1L, user.getEmail(), 1);
+
+        assertEquals(1, counters.get(user));
+    }
+
+    @Test
+    void expiredCountersReload() {
+        UnreadNotificationCounters counters = new UnreadNotificationCounters(repository, messagingTemplate, 100, 0);
+        User user = user(1);
+        when(repository.countByReceiverAndIsReadFalse(user)).thenReturn(1L, 7L);
+
+        assertEquals(1, counters.get(user));
+        assertEquals(7, counters.get(user));
+    }
+
+    @Test
+    void boundedNumberOfCounters() {
+        UnreadNotificationCounters counters = new UnreadNotificationCounters(repository, messagingTemplate, 2, 10);
+        for (long id = 1; id <= 3; id++) {
+            User user = user(id);
+            when(repository.countByReceiverAndIsReadFalse(user)).thenReturn(id);
+            assertEquals(id, counters.get(user));
+        }
+
+        // At least one of the first two was evicted and reloads on the next access
+        counters.get(user(1));
+        counters.get(user(2));
+        verify(repository, atLeast(4)).countByReceiverAndIsReadFalse(any(User.class));
+    }
+}